@@ -0,0 +1,114 @@
+package com.w2m.app.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * HTTP load test comparing the MVC API (Tomcat, JPA over JDBC) with its reactive
+ * variant (Netty, R2DBC). Each one is booted on a random port with the same dataset and
+ * the same number of database connections, then receives keyset page requests, which
+ * are not cached, with {@code connections} of them in flight, until {@code requests}
+ * have completed. Tomcat is allowed to accept that many connections, so the comparison
+ * measures the threading model rather than the connector's limit. Besides throughput
+ * and latency percentiles, it prints the peak number of live threads during the load.
+ * <p>
+ * The reactive variant is only compiled with the {@code reactive} Maven profile; run with:
+ * {@code mvn -Pbenchmark,reactive test-compile exec:exec -Dbenchmark.main=com.w2m.app.benchmark.ApiModeLoadTest
+ * -Djmh.args="<connections> <requests> <rows>"}
+ * <p>
+ * Client and servers share the process, so each connection takes two file descriptors:
+ * 10,000 connections need {@code ulimit -n} above 20,000.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public final class ApiModeLoadTest {
+
+    private static final String REACTIVE_APPLICATION = "com.w2m.reactive.ReactiveSpacecraftApplication";
+    private static final int POOL_SIZE = 32;
+    private static final int KEEP_ALIVE_SECONDS = 2;
+
+    private ApiModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        System.out.printf("connections=%d requests=%d rows=%d java=%s%n",
+                connections, requests, rows, Runtime.version());
+        // Idle client connections are closed before each server stops: Reactor Netty overflows
+        // the stack when it is stopped with thousands of connections still open.
+        System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(KEEP_ALIVE_SECONDS));
+        try (ConfigurableApplicationContext context = BenchmarkContext.startServer(rows,
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--server.tomcat.max-connections=" + (connections + 100))) {
+            run("mvc", context, connections, requests, rows);
+        }
+        Class<?> reactiveApplication;
+        try {
+            reactiveApplication = Class.forName(REACTIVE_APPLICATION);
+        } catch (ClassNotFoundException ex) {
+            System.out.println("webflux: skipped, requires the reactive Maven profile");
+            return;
+        }
+        try (ConfigurableApplicationContext context = startReactive(reactiveApplication, rows)) {
+            run("webflux", context, connections, requests, rows);
+        }
+    }
+
+    /**
+     * Starts the reactive application on a fresh in-memory database and seeds it
+     * through JDBC, like {@link BenchmarkContext} does for the MVC one.
+     */
+    private static ConfigurableApplicationContext startReactive(Class<?> application, int rows) {
+        // DevTools would otherwise relaunch this main method in a restart class loader.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String database = "bench-" + UUID.randomUUID();
+        String jdbcUrl = "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=reactive")
+                .run("--server.port=0",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.pool.max-size=" + POOL_SIZE,
+                        "--spring.liquibase.url=" + jdbcUrl,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        BenchmarkContext.seed(new JdbcTemplate(new DriverManagerDataSource(jdbcUrl, "sa", "")), rows);
+        return context;
+    }
+
+    private static void run(String mode, ConfigurableApplicationContext context, int connections, int requests,
+                            int rows) throws Exception {
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(30)).build();
+        ExecutionModeLoadTest.load(client, baseUrl, Math.min(connections, 100), requests / 10, rows);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long elapsed = ExecutionModeLoadTest.load(client, baseUrl, connections, requests, rows, latencies, errors);
+        executor.shutdownNow();
+        Arrays.sort(latencies);
+        System.out.printf("%s: throughput=%.0f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms errors=%d peak-threads=%d%n",
+                mode, requests * 1e9 / elapsed, ExecutionModeLoadTest.percentile(latencies, 0.50),
+                ExecutionModeLoadTest.percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6,
+                errors.get(), threads.getPeakThreadCount());
+        Thread.sleep(TimeUnit.SECONDS.toMillis(KEEP_ALIVE_SECONDS + 1));
+    }
+}
@@ -0,0 +1,116 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.World2MeetApplication;
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.TrigramSpacecraftSearchEngine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Boots the application, without a web server unless a load test needs one, on a fresh
+ * in-memory H2 database seeded with a configurable number of synthetic spacecrafts, so
+ * every benchmark trial starts from the same dataset. A {@code --spring.datasource.url}
+ * argument replaces the in-memory database.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public final class BenchmarkContext {
+
+    /**
+     * First ID used for the synthetic rows, far above the Liquibase seed data and the
+     * IDs handed out by {@code spacecraft_seq} while a benchmark runs.
+     */
+    public static final long FIRST_ID = 10_000_000L;
+
+    static final String[] MODELS = {
+            "X-Wing", "TIE Fighter", "Falcon", "Star Destroyer", "Cruiser", "Shuttle", "Corvette", "Frigate"
+    };
+    static final String[] TYPES = {"Fighter", "Freighter", "Capital Ship", "Transport", "Bomber"};
+    static final String[] ORIGINS = {"Rebel Alliance", "Galactic Empire", "Earth", "Outer Space"};
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts the application and seeds it.
+     *
+     * @param rows the number of synthetic spacecrafts to insert
+     * @param args additional application arguments, e.g. {@code --search.engine=jpa}
+     * @return the running application context
+     */
+    public static ConfigurableApplicationContext start(int rows, String... args) {
+        return start(WebApplicationType.NONE, rows, args);
+    }
+
+    /**
+     * Starts the application with its embedded web server on a random port and seeds it.
+     * The port is available as the {@code local.server.port} property of the context.
+     *
+     * @param rows the number of synthetic spacecrafts to insert
+     * @param args additional application arguments, e.g. {@code --spring.profiles.active=virtual-threads}
+     * @return the running application context
+     */
+    public static ConfigurableApplicationContext startServer(int rows, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--server.port=0");
+        return start(WebApplicationType.SERVLET, rows, arguments.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, int rows, String... args) {
+        // DevTools would otherwise relaunch a benchmark's main method in a restart class loader.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> arguments = new ArrayList<>();
+        if (Arrays.stream(args).noneMatch(arg -> arg.startsWith("--spring.datasource.url="))) {
+            arguments.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        }
+        arguments.addAll(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--spacecraft.cache.warm-up.enabled=false",
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(args));
+        SpringApplication application = new SpringApplication(World2MeetApplication.class);
+        application.setWebApplicationType(type);
+        ConfigurableApplicationContext context = application.run(arguments.toArray(String[]::new));
+        seed(context.getBean(JdbcTemplate.class), rows);
+        context.getBeanProvider(TrigramSpacecraftSearchEngine.class).ifAvailable(TrigramSpacecraftSearchEngine::load);
+        context.getBean(SpacecraftFacets.class).load();
+        return context;
+    }
+
+    /**
+     * Returns the synthetic name of the row at the given position.
+     *
+     * @param row the position of the row, starting at zero
+     * @return the name of the row
+     */
+    public static String name(long row) {
+        return MODELS[(int) (row % MODELS.length)] + " Mk" + row;
+    }
+
+    /**
+     * Inserts synthetic spacecrafts with IDs starting at {@link #FIRST_ID}.
+     *
+     * @param jdbcTemplate the template of the application's data source
+     * @param rows the number of synthetic spacecrafts to insert
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int row = 0; row < rows; row++) {
+            batch.add(new Object[]{FIRST_ID + row, name(row), TYPES[row % TYPES.length], ORIGINS[row % ORIGINS.length]});
+            if (batch.size() == INSERT_BATCH_SIZE || row == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO spacecraft (id, name, type, origin) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.w2m.app.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.infraestructura.cache.OffHeapSpacecraftStore;
+
+/**
+ * Measures the memory taken per cached spacecraft by the on-heap {@code spacecraftById}
+ * cache, holding the entities the way {@code @Cacheable} stores them, and by the
+ * {@link OffHeapSpacecraftStore}. Heap usage is sampled after a full GC, so run it
+ * with a fixed heap, e.g. {@code -Xms2g -Xmx2g}.
+ * <p>
+ * Run with:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.w2m.app.benchmark.CacheFootprint
+ * -Djmh.args="<entries>"}
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public final class CacheFootprint {
+
+    private CacheFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long before = usedHeap();
+        Cache<Object, Object> onHeap = Caffeine.newBuilder().maximumSize(entries).build();
+        for (int row = 0; row < entries; row++) {
+            onHeap.put(BenchmarkContext.FIRST_ID + row, spacecraft(row));
+        }
+        onHeap.cleanUp();
+        long onHeapBytes = usedHeap() - before;
+        System.out.printf("on-heap:  %d entries, %.1f heap bytes/entry%n", onHeap.estimatedSize(),
+                (double) onHeapBytes / entries);
+        onHeap.invalidateAll();
+
+        before = usedHeap();
+        int capacityBytes = entries * 64;
+        OffHeapSpacecraftStore offHeap = new OffHeapSpacecraftStore(capacityBytes, entries);
+        for (int row = 0; row < entries; row++) {
+            offHeap.put(spacecraft(row));
+        }
+        long offHeapHeapBytes = usedHeap() - before;
+        long indexBytes = offHeap.reservedBytes() - capacityBytes;
+        System.out.printf("off-heap: %d entries, %.1f data bytes/entry, %.1f index bytes/entry, "
+                        + "%.1f heap bytes/entry%n", offHeap.size(), (double) offHeap.usedBytes() / entries,
+                (double) indexBytes / entries, (double) offHeapHeapBytes / entries);
+    }
+
+    /**
+     * Builds a spacecraft with its own string instances, like an entity read by JDBC.
+     */
+    private static Spacecraft spacecraft(int row) {
+        return new Spacecraft(BenchmarkContext.FIRST_ID + row, BenchmarkContext.name(row),
+                new String(BenchmarkContext.TYPES[row % BenchmarkContext.TYPES.length]),
+                new String(BenchmarkContext.ORIGINS[row % BenchmarkContext.ORIGINS.length]));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,111 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.application.dto.CursorPage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * HTTP load test comparing the platform-thread and virtual-thread execution modes.
+ * For each mode it boots the application on a random port, keeps {@code concurrency}
+ * requests in flight until {@code requests} have completed, and prints throughput and
+ * latency percentiles. Requests fetch keyset pages at random positions, which are not
+ * cached, so every request blocks on JDBC.
+ * <p>
+ * Run on JDK 21 with:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.w2m.app.benchmark.ExecutionModeLoadTest
+ * -Djmh.args="<concurrency> <requests> <rows>"}
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public final class ExecutionModeLoadTest {
+
+    private ExecutionModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        System.out.printf("concurrency=%d requests=%d rows=%d java=%s%n",
+                concurrency, requests, rows, Runtime.version());
+        // Both modes get the same connection pool so the comparison isolates the threading model.
+        run("platform", concurrency, requests, rows, "--spring.datasource.hikari.maximum-pool-size=32");
+        if (Runtime.version().feature() >= 21) {
+            run("virtual", concurrency, requests, rows, "--spring.profiles.active=virtual-threads");
+        } else {
+            System.out.println("virtual: skipped, requires Java 21");
+        }
+    }
+
+    private static void run(String mode, int concurrency, int requests, int rows, String... args) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkContext.startServer(rows, args)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build();
+            load(client, baseUrl, Math.min(concurrency, 100), requests / 10, rows);
+            long[] latencies = new long[requests];
+            AtomicInteger errors = new AtomicInteger();
+            long elapsed = load(client, baseUrl, concurrency, requests, rows, latencies, errors);
+            executor.shutdownNow();
+            Arrays.sort(latencies);
+            System.out.printf("%s: throughput=%.0f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms errors=%d%n",
+                    mode, requests * 1e9 / elapsed, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1e6, errors.get());
+        }
+    }
+
+    /**
+     * Sends {@code requests} keyset page requests with at most {@code concurrency} in flight.
+     */
+    static void load(HttpClient client, String baseUrl, int concurrency, int requests, int rows)
+            throws InterruptedException {
+        load(client, baseUrl, concurrency, requests, rows, new long[requests], new AtomicInteger());
+    }
+
+    /**
+     * Sends {@code requests} keyset page requests with at most {@code concurrency} in flight,
+     * recording the latency of each one and counting the failed ones.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    static long load(HttpClient client, String baseUrl, int concurrency, int requests, int rows,
+                     long[] latencies, AtomicInteger errors) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int slot = i;
+            long cursor = BenchmarkContext.FIRST_ID + ThreadLocalRandom.current().nextInt(Math.max(rows, 1));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                    baseUrl + "/api/spacecraft?size=20&cursor=" + CursorPage.encode(cursor))).build();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                latencies[slot] = System.nanoTime() - sent;
+                if (ex != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,110 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.TrigramSpacecraftSearchEngine;
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Compares the in-memory database with the {@code persistent} profile (file-backed H2).
+ * For each mode it prints the boot time, the time to get {@code rows} spacecrafts into
+ * the database and the in-memory search structures, and the throughput of uncached reads by ID and of creates on
+ * {@code threads} threads. The persistent mode is booted twice: on an empty directory,
+ * and again on the data left by the first run, which is what a restart costs. The
+ * in-memory mode has to load its data again after every restart.
+ * <p>
+ * Run with:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.w2m.app.benchmark.PersistenceModeComparison
+ * -Djmh.args="<rows> <operations> <threads>"}
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public final class PersistenceModeComparison {
+
+    private PersistenceModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        System.out.printf("rows=%d operations=%d threads=%d%n", rows, operations, threads);
+        Path dataDir = Files.createTempDirectory("spacecraft-data");
+        // The URL of the profile, passed explicitly so BenchmarkContext does not replace it.
+        String[] persistent = {"--spring.profiles.active=persistent", "--spacecraft.data-dir=" + dataDir,
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("spacecraftdb") + ";DB_CLOSE_ON_EXIT=FALSE"};
+        try {
+            // The first boot of the JVM pays for class loading and is left out of the comparison.
+            BenchmarkContext.start(0).close();
+            run("memory", rows, operations, threads, true);
+            run("persistent (empty)", rows, operations, threads, true, persistent);
+            run("persistent (restart)", rows, operations, threads, false, persistent);
+        } finally {
+            FileSystemUtils.deleteRecursively(dataDir);
+        }
+    }
+
+    private static void run(String mode, int rows, int operations, int threads, boolean seed, String... args)
+            throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(0, args)) {
+            long boot = System.nanoTime() - start;
+            start = System.nanoTime();
+            if (seed) {
+                BenchmarkContext.seed(context.getBean(JdbcTemplate.class), rows);
+                // A restart loads the in-memory search index and facets during boot instead.
+                context.getBeanProvider(TrigramSpacecraftSearchEngine.class).ifAvailable(TrigramSpacecraftSearchEngine::load);
+                context.getBean(SpacecraftFacets.class).load();
+            }
+            long load = System.nanoTime() - start;
+            SpacecraftRepository repository = context.getBean(SpacecraftRepository.class);
+            SpacecraftService service = context.getBean(SpacecraftService.class);
+            long count = repository.count();
+            IntConsumer read = i -> repository.findById(
+                    BenchmarkContext.FIRST_ID + ThreadLocalRandom.current().nextInt(rows));
+            IntConsumer create = i -> service.createSpacecraft(new Spacecraft(null, "Bench " + i, "Fighter", "Earth"));
+            throughput(read, operations / 10, threads);
+            double reads = throughput(read, operations, threads);
+            throughput(create, operations / 50, threads);
+            double creates = throughput(create, operations / 5, threads);
+            System.out.printf("%s: boot=%d ms data=%d ms (%d rows) reads=%.0f ops/s creates=%.0f ops/s%n",
+                    mode, TimeUnit.NANOSECONDS.toMillis(boot), TimeUnit.NANOSECONDS.toMillis(load), count,
+                    reads, creates);
+        }
+    }
+
+    private static double throughput(IntConsumer operation, int operations, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            futures.add(executor.submit(() -> {
+                for (int i = first; i < operations; i += threads) {
+                    operation.accept(i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return operations * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,81 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.application.dto.BulkItemResult;
+import com.w2m.app.application.service.SpacecraftBulkService;
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares the insert throughput, in rows per second, of
+ * {@link SpacecraftBulkService#upsertAll(java.util.Iterator)} against one
+ * {@link SpacecraftService#createSpacecraft(Spacecraft)} call per row.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpacecraftBulkBenchmark {
+
+    private static final int ROWS_PER_INVOCATION = 1000;
+
+    private ConfigurableApplicationContext context;
+    private SpacecraftService service;
+    private SpacecraftBulkService bulkService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(0);
+        service = context.getBean(SpacecraftService.class);
+        bulkService = context.getBean(SpacecraftBulkService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public List<BulkItemResult> bulkUpsert() {
+        return bulkService.upsertAll(newSpacecrafts().iterator());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void singleCreate(Blackhole blackhole) {
+        for (Spacecraft spacecraft : newSpacecrafts()) {
+            blackhole.consume(service.createSpacecraft(spacecraft));
+        }
+    }
+
+    private static List<Spacecraft> newSpacecrafts() {
+        List<Spacecraft> spacecrafts = new ArrayList<>(ROWS_PER_INVOCATION);
+        for (int row = 0; row < ROWS_PER_INVOCATION; row++) {
+            spacecrafts.add(new Spacecraft(null, BenchmarkContext.name(row), "Fighter", "Rebel Alliance"));
+        }
+        return spacecrafts;
+    }
+}
@@ -0,0 +1,84 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.infraestructura.cache.OffHeapSpacecraftStore;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Measures {@link SpacecraftService#getSpacecraftById(Long)} when the spacecraft is
+ * served from {@code spacecraftById}, when it is promoted from the off-heap tier and
+ * when it has to be loaded from the database.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpacecraftLookupBenchmark {
+
+    @Param("10000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private SpacecraftService service;
+    private Cache byId;
+    private OffHeapSpacecraftStore offHeapStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        service = context.getBean(SpacecraftService.class);
+        byId = context.getBean(CacheManager.class).getCache(SpacecraftCache.BY_ID);
+        offHeapStore = context.getBean(OffHeapSpacecraftStore.class);
+        service.getSpacecraftById(BenchmarkContext.FIRST_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Spacecraft> getSpacecraftByIdCacheHit() {
+        return service.getSpacecraftById(BenchmarkContext.FIRST_ID);
+    }
+
+    @Benchmark
+    public Optional<Spacecraft> getSpacecraftByIdOffHeapHit() {
+        long id = BenchmarkContext.FIRST_ID + ThreadLocalRandom.current().nextInt(rows);
+        byId.evict(id);
+        offHeapStore.put(new Spacecraft(id, BenchmarkContext.name(id - BenchmarkContext.FIRST_ID), "Fighter", "Earth"));
+        return service.getSpacecraftById(id);
+    }
+
+    @Benchmark
+    public Optional<Spacecraft> getSpacecraftByIdCacheMiss() {
+        long id = BenchmarkContext.FIRST_ID + ThreadLocalRandom.current().nextInt(rows);
+        byId.evict(id);
+        return service.getSpacecraftById(id);
+    }
+}
@@ -0,0 +1,82 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Measures {@link SpacecraftService#getAllSpacecraft(Pageable)} at several page sizes,
+ * on the first page and on a page in the middle of the table, next to the keyset
+ * pagination of {@link SpacecraftService#getSpacecraftPage(String, int)} at the same depth.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpacecraftPaginationBenchmark {
+
+    @Param("10000")
+    public int rows;
+
+    @Param({"20", "200", "2000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private SpacecraftService service;
+    private Pageable firstPage;
+    private Pageable middlePage;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        service = context.getBean(SpacecraftService.class);
+        firstPage = PageRequest.of(0, pageSize);
+        int middle = rows / 2 / pageSize;
+        middlePage = PageRequest.of(middle, pageSize);
+        middleCursor = CursorPage.encode(BenchmarkContext.FIRST_ID + (long) middle * pageSize - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Spacecraft> getAllSpacecraftFirstPage() {
+        return service.getAllSpacecraft(firstPage);
+    }
+
+    @Benchmark
+    public Page<Spacecraft> getAllSpacecraftMiddlePage() {
+        return service.getAllSpacecraft(middlePage);
+    }
+
+    @Benchmark
+    public CursorPage<Spacecraft> getSpacecraftPageMiddleCursor() {
+        return service.getSpacecraftPage(middleCursor, pageSize);
+    }
+}
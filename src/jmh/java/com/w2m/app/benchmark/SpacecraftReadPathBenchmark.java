@@ -0,0 +1,91 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares reading a page of managed {@link Spacecraft} entities with reading the same
+ * page through the constructor-expression projection of
+ * {@link SpacecraftRepository#findAllDetached(Pageable)}, both in a read-write
+ * transaction, as a request does with open-in-view, and in a read-only one. Run it with
+ * {@code -prof gc} to see the allocation per page next to the latency.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpacecraftReadPathBenchmark {
+
+    @Param("10000")
+    public int rows;
+
+    @Param({"20", "200", "2000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private SpacecraftRepository repository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Pageable page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        repository = context.getBean(SpacecraftRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        page = PageRequest.of(0, pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Spacecraft> managedEntities() {
+        return readWrite.execute(status -> repository.findAll(page));
+    }
+
+    @Benchmark
+    public Page<Spacecraft> managedEntitiesReadOnly() {
+        return readOnly.execute(status -> repository.findAll(page));
+    }
+
+    @Benchmark
+    public Page<Spacecraft> detachedProjection() {
+        return readWrite.execute(status -> repository.findAllDetached(page));
+    }
+
+    @Benchmark
+    public Page<Spacecraft> detachedProjectionReadOnly() {
+        return readOnly.execute(status -> repository.findAllDetached(page));
+    }
+}
@@ -0,0 +1,78 @@
+package com.w2m.app.benchmark;
+
+import com.w2m.app.application.search.SpacecraftSearchEngine;
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares name searches with the trigram index and with the JPA {@code LIKE} query.
+ * The uncached benchmarks call the configured {@link SpacecraftSearchEngine} directly,
+ * which is what {@link SpacecraftService#searchSpacecraftByName(String)} runs on every
+ * cache miss. Use {@code -p rows=1000000} to reproduce the catalog size in production.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpacecraftSearchBenchmark {
+
+    @Param("10000")
+    public int rows;
+
+    @Param({"index", "jpa"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private SpacecraftService service;
+    private SpacecraftSearchEngine searchEngine;
+    private String selectiveQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows, "--search.engine=" + engine);
+        service = context.getBean(SpacecraftService.class);
+        searchEngine = context.getBean(SpacecraftSearchEngine.class);
+        selectiveQuery = BenchmarkContext.name(rows / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Spacecraft> searchSelectiveUncached() {
+        return searchEngine.search(selectiveQuery);
+    }
+
+    @Benchmark
+    public List<Spacecraft> searchShortTermUncached() {
+        return searchEngine.search("Mk12345");
+    }
+
+    @Benchmark
+    public List<Spacecraft> searchSpacecraftByNameCached() {
+        return service.searchSpacecraftByName(selectiveQuery);
+    }
+}
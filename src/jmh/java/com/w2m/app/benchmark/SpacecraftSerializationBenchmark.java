@@ -0,0 +1,67 @@
+package com.w2m.app.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures Jackson serialization of a single {@link Spacecraft} and of a list the
+ * size of a page, with an object mapper configured like the one Spring Boot creates.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpacecraftSerializationBenchmark {
+
+    @Param("20")
+    public int pageSize;
+
+    private ObjectWriter spacecraftWriter;
+    private ObjectWriter listWriter;
+    private Spacecraft spacecraft;
+    private List<Spacecraft> page;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        spacecraftWriter = objectMapper.writerFor(Spacecraft.class);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Spacecraft.class));
+        spacecraft = new Spacecraft(1L, "Millennium Falcon", "Freighter", "Rebel Alliance");
+        page = new ArrayList<>(pageSize);
+        for (int row = 0; row < pageSize; row++) {
+            page.add(new Spacecraft(BenchmarkContext.FIRST_ID + row, BenchmarkContext.name(row), "Fighter", "Rebel Alliance"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeSpacecraft() throws JsonProcessingException {
+        return spacecraftWriter.writeValueAsBytes(spacecraft);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,254 @@
+package com.w2m.app.application.changes;
+
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.dto.SpacecraftChange.Type;
+import com.w2m.app.application.exception.ChangeSequenceExpiredException;
+import com.w2m.app.domino.model.Spacecraft;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Append-only log of the spacecraft creates, updates and deletes, so consumers can
+ * follow the changes instead of reading the whole catalog again.
+ * <p>
+ * The services record every write once its transaction has committed. Each change gets
+ * the next number of a sequence that only grows and is kept in a ring buffer of the
+ * last {@code spacecraft.changes.buffer-size} changes. Changes are numbered and stored
+ * under a lock, so a reader never sees a change before the ones preceding it. When
+ * {@link SpacecraftChangeStore} is enabled every change is also written to the
+ * database, the sequence resumes after a restart, and readers that fell behind the
+ * buffer read from the table. The writes are queued under the lock but done by a
+ * single background thread, in sequence order, so the lock is never held during a
+ * database round trip. A change is only handed to readers and listeners once it and
+ * every change before it are in the table, so a sequence a reader has seen is never
+ * reissued after a crash. A write that fails is retried, with a growing delay, until
+ * it succeeds; meanwhile readers wait rather than skip it.
+ * Otherwise the sequence starts from the clock, in
+ * microseconds, so the sequences of a previous run are never reissued and their
+ * readers are told to reload, and changes are readable as soon as they are recorded.
+ * <p>
+ * Commits of different transactions may be recorded in a different order than they
+ * happened, so each change carries the version of the spacecraft and consumers keep
+ * the highest one they have seen.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class SpacecraftChangeLog {
+
+    private static final long RETRY_DELAY_MILLIS = 100;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final SpacecraftChange[] slots;
+    private final int mask;
+    private final SpacecraftChangeStore store;
+    private final long firstSequence;
+    private final ExecutorService storeWriter;
+    private final Set<Runnable> listeners = ConcurrentHashMap.newKeySet();
+    private final Logger logger = LoggerFactory.getLogger(SpacecraftChangeLog.class);
+
+    private long lastSequence;
+    private long readableSequence;
+
+    /**
+     * Constructs a new SpacecraftChangeLog.
+     *
+     * @param store the table the changes are persisted to, if {@code spacecraft.changes.persist} is enabled
+     * @param bufferSize the number of changes kept in memory, rounded up to a power of two
+     */
+    public SpacecraftChangeLog(ObjectProvider<SpacecraftChangeStore> store,
+                               @Value("${spacecraft.changes.buffer-size:4096}") int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Change buffer size must be positive: " + bufferSize);
+        }
+        int size = Integer.highestOneBit(bufferSize) == bufferSize ? bufferSize : Integer.highestOneBit(bufferSize) << 1;
+        this.slots = new SpacecraftChange[size];
+        this.mask = size - 1;
+        this.store = store.getIfAvailable();
+        this.storeWriter = this.store == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spacecraft-change-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastSequence = this.store != null ? this.store.lastSequence() : System.currentTimeMillis() * 1000;
+        this.firstSequence = lastSequence + 1;
+        this.readableSequence = lastSequence;
+    }
+
+    /**
+     * Records a change once the current transaction commits, or at once if there is no
+     * transaction. Nothing is recorded if the transaction rolls back.
+     *
+     * @param type the kind of change
+     * @param spacecraftId the ID of the changed spacecraft
+     * @param spacecraft the spacecraft as written, or {@code null} for a deletion
+     */
+    public void record(Type type, Long spacecraftId, Spacecraft spacecraft) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The copy is taken after the commit, once the flush has incremented the version.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, spacecraftId, copy(spacecraft));
+                }
+            });
+        } else {
+            append(type, spacecraftId, copy(spacecraft));
+        }
+    }
+
+    /**
+     * Reads the changes that follow the given sequence, from the buffer or, if they
+     * are no longer in it, from the database.
+     *
+     * @param sequence the sequence of the last change already read
+     * @param limit the maximum number of changes to read
+     * @return the changes, in sequence order, empty if there are none yet
+     * @throws ChangeSequenceExpiredException if the changes that follow the sequence
+     *         are no longer kept, or the sequence was never issued
+     */
+    public List<SpacecraftChange> readAfter(long sequence, int limit) {
+        long readable;
+        synchronized (this) {
+            readable = readableSequence;
+            if (sequence > readable) {
+                throw new ChangeSequenceExpiredException("Change sequence " + sequence
+                        + " was not issued by this log, the last one is " + readable);
+            }
+            long oldest = Math.max(firstSequence, lastSequence - slots.length + 1);
+            if (sequence >= oldest - 1) {
+                int count = (int) Math.min(limit, readable - sequence);
+                List<SpacecraftChange> changes = new ArrayList<>(count);
+                for (long position = sequence + 1; position <= sequence + count; position++) {
+                    changes.add(slots[(int) (position & mask)]);
+                }
+                return changes;
+            }
+        }
+        if (store != null && sequence >= store.firstSequence() - 1) {
+            // The table may already hold changes past the snapshot taken above.
+            int count = (int) Math.min(limit, readable - sequence);
+            return count == 0 ? List.of() : store.readAfter(sequence, count);
+        }
+        throw new ChangeSequenceExpiredException("Changes after sequence " + sequence + " are no longer kept");
+    }
+
+    /**
+     * Returns the sequence of the last change readers can see, which a new consumer
+     * starts following the log from.
+     *
+     * @return the last readable sequence
+     */
+    public synchronized long lastSequence() {
+        return readableSequence;
+    }
+
+    /**
+     * Registers a listener run after each change becomes readable, on the writing
+     * thread or, when the changes are persisted, on the thread persisting them.
+     * Listeners must return quickly.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addListener(Runnable)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Waits for the changes already recorded to be written to the database, so the
+     * sequence resumes after the last of them. The changes still failing when the wait
+     * times out are given up.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (storeWriter != null) {
+            storeWriter.shutdown();
+            if (!storeWriter.awaitTermination(10, TimeUnit.SECONDS)) {
+                storeWriter.shutdownNow();
+                logger.error("Timed out persisting the last spacecraft changes, up to {} were persisted",
+                        lastSequence());
+            }
+        }
+    }
+
+    private void append(Type type, Long spacecraftId, Spacecraft spacecraft) {
+        synchronized (this) {
+            SpacecraftChange change = new SpacecraftChange(lastSequence + 1, type, spacecraftId, spacecraft, Instant.now());
+            slots[(int) (change.sequence() & mask)] = change;
+            lastSequence = change.sequence();
+            if (storeWriter != null) {
+                storeWriter.execute(() -> persist(change));
+                return;
+            }
+            readableSequence = change.sequence();
+        }
+        notifyListeners();
+    }
+
+    private void persist(SpacecraftChange change) {
+        long delay = RETRY_DELAY_MILLIS;
+        while (!store(change)) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+        }
+        synchronized (this) {
+            readableSequence = change.sequence();
+        }
+        notifyListeners();
+    }
+
+    private boolean store(SpacecraftChange change) {
+        try {
+            store.append(change);
+            return true;
+        } catch (RuntimeException ex) {
+            logger.error("Failed to persist change {} of spacecraft {}, readers wait until it is retried",
+                    change.sequence(), change.spacecraftId(), ex);
+            return false;
+        }
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                logger.warn("Change listener failed", ex);
+            }
+        }
+    }
+
+    private static Spacecraft copy(Spacecraft spacecraft) {
+        return spacecraft == null ? null : new Spacecraft(spacecraft.getId(), spacecraft.getName(),
+                spacecraft.getType(), spacecraft.getOrigin(), spacecraft.getVersion());
+    }
+}
@@ -0,0 +1,124 @@
+package com.w2m.app.application.changes;
+
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.dto.SpacecraftChange.Type;
+import com.w2m.app.domino.model.Spacecraft;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Persists the change log in the {@code spacecraft_change} table, so the change feed
+ * survives restarts and consumers that fell behind the in-memory buffer can still
+ * catch up. Enabled with {@code spacecraft.changes.persist}.
+ * <p>
+ * Changes are recorded once the write they describe has committed, so each insert runs
+ * in a transaction of its own. Every {@value #PRUNE_INTERVAL} changes the table is
+ * trimmed to the last {@code spacecraft.changes.persisted-max} ones.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "spacecraft.changes.persist", havingValue = "true")
+public class SpacecraftChangeStore {
+
+    static final int PRUNE_INTERVAL = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxPersisted;
+
+    /**
+     * Constructs a new SpacecraftChangeStore.
+     *
+     * @param jdbcTemplate the template used to read and write the table
+     * @param transactionManager the manager of the transactions each change is written in
+     * @param maxPersisted the number of most recent changes kept in the table
+     */
+    public SpacecraftChangeStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 @Value("${spacecraft.changes.persisted-max:1000000}") long maxPersisted) {
+        if (maxPersisted < 1) {
+            throw new IllegalArgumentException("Persisted change count must be positive: " + maxPersisted);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxPersisted = maxPersisted;
+    }
+
+    /**
+     * Writes a change, and trims the oldest ones every {@value #PRUNE_INTERVAL} changes.
+     *
+     * @param change the change to write
+     */
+    public void append(SpacecraftChange change) {
+        Spacecraft spacecraft = change.spacecraft();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO spacecraft_change"
+                            + " (sequence, change_type, spacecraft_id, name, type, origin, version, changed_at)"
+                            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    change.sequence(), change.type().name(), change.spacecraftId(),
+                    spacecraft == null ? null : spacecraft.getName(),
+                    spacecraft == null ? null : spacecraft.getType(),
+                    spacecraft == null ? null : spacecraft.getOrigin(),
+                    spacecraft == null ? null : spacecraft.getVersion(),
+                    Timestamp.from(change.timestamp()));
+            if (change.sequence() % PRUNE_INTERVAL == 0) {
+                jdbcTemplate.update("DELETE FROM spacecraft_change WHERE sequence <= ?",
+                        change.sequence() - maxPersisted);
+            }
+        });
+    }
+
+    /**
+     * Reads the changes that follow the given sequence.
+     *
+     * @param sequence the sequence of the last change already read
+     * @param limit the maximum number of changes to read
+     * @return the changes, in sequence order
+     */
+    public List<SpacecraftChange> readAfter(long sequence, int limit) {
+        return jdbcTemplate.query("SELECT sequence, change_type, spacecraft_id, name, type, origin, version, changed_at"
+                + " FROM spacecraft_change WHERE sequence > ? ORDER BY sequence LIMIT ?",
+                SpacecraftChangeStore::mapChange, sequence, limit);
+    }
+
+    /**
+     * Returns the sequence of the oldest change in the table.
+     *
+     * @return the oldest sequence, or 0 if the table is empty
+     */
+    public long firstSequence() {
+        Long first = jdbcTemplate.queryForObject("SELECT MIN(sequence) FROM spacecraft_change", Long.class);
+        return first == null ? 0L : first;
+    }
+
+    /**
+     * Returns the sequence of the newest change in the table.
+     *
+     * @return the newest sequence, or 0 if the table is empty
+     */
+    public long lastSequence() {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(sequence) FROM spacecraft_change", Long.class);
+        return last == null ? 0L : last;
+    }
+
+    private static SpacecraftChange mapChange(ResultSet resultSet, int row) throws SQLException {
+        Type type = Type.valueOf(resultSet.getString("change_type"));
+        long spacecraftId = resultSet.getLong("spacecraft_id");
+        Spacecraft spacecraft = type == Type.DELETED ? null : new Spacecraft(spacecraftId,
+                resultSet.getString("name"), resultSet.getString("type"), resultSet.getString("origin"),
+                resultSet.getObject("version", Long.class));
+        return new SpacecraftChange(resultSet.getLong("sequence"), type, spacecraftId, spacecraft,
+                resultSet.getTimestamp("changed_at").toInstant());
+    }
+}
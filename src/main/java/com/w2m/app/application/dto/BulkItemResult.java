@@ -0,0 +1,61 @@
+package com.w2m.app.application.dto;
+
+/**
+ * Outcome of a single item of a bulk create/upsert request.
+ *
+ * @param index the position of the item in the request body
+ * @param id the ID of the created or updated spacecraft, or the requested ID if the item failed
+ * @param status the outcome of the item
+ * @param error the reason of the failure, or {@code null} if the item succeeded
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public record BulkItemResult(int index, Long id, Status status, String error) {
+
+    /**
+     * Possible outcomes of a bulk item.
+     */
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED,
+        CONFLICT
+    }
+
+    /**
+     * Creates a successful result.
+     *
+     * @param index the position of the item in the request body
+     * @param id the ID of the spacecraft
+     * @param status the outcome of the item
+     * @return the result
+     */
+    public static BulkItemResult success(int index, Long id, Status status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param index the position of the item in the request body
+     * @param id the requested ID, if any
+     * @param error the reason of the failure
+     * @return the result
+     */
+    public static BulkItemResult failed(int index, Long id, String error) {
+        return new BulkItemResult(index, id, Status.FAILED, error);
+    }
+
+    /**
+     * Creates the result of an update whose spacecraft no longer has the version the
+     * item was based on.
+     *
+     * @param index the position of the item in the request body
+     * @param id the requested ID
+     * @param error the reason of the conflict
+     * @return the result
+     */
+    public static BulkItemResult conflict(int index, Long id, String error) {
+        return new BulkItemResult(index, id, Status.CONFLICT, error);
+    }
+}
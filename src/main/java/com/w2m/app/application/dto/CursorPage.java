@@ -0,0 +1,55 @@
+package com.w2m.app.application.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A page of results obtained with keyset (seek) pagination. Unlike a Spring
+ * {@code Page} it carries no total count, only an opaque cursor that points to
+ * the next page, so fetching any page costs the same regardless of its depth.
+ *
+ * @param content the elements of this page
+ * @param nextCursor the cursor of the next page, or {@code null} if this is the last one
+ * @param <T> the type of the elements
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * Encodes the last ID seen into an opaque cursor.
+     *
+     * @param lastId the ID of the last element returned
+     * @return the opaque cursor
+     */
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an opaque cursor into the last ID seen. A missing or blank cursor
+     * designates the first page.
+     *
+     * @param cursor the opaque cursor sent by the client
+     * @return the ID after which the next page starts
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode(long)}
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.w2m.app.application.dto;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.time.Instant;
+
+/**
+ * A create, update or delete of a spacecraft, as recorded in the change log. Changes
+ * are numbered with a sequence that only grows, so a consumer resumes the feed from the
+ * sequence of the last change it applied.
+ *
+ * @param sequence the position of the change in the log
+ * @param type the kind of change
+ * @param spacecraftId the ID of the changed spacecraft
+ * @param spacecraft the spacecraft as written, or {@code null} for a deletion
+ * @param timestamp the instant the change was recorded
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public record SpacecraftChange(long sequence, Type type, Long spacecraftId, Spacecraft spacecraft, Instant timestamp) {
+
+    /**
+     * The kinds of change recorded in the log.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
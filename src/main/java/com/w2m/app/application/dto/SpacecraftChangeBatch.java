@@ -0,0 +1,15 @@
+package com.w2m.app.application.dto;
+
+import java.util.List;
+
+/**
+ * A batch of consecutive changes read from the change log.
+ *
+ * @param changes the changes, in sequence order
+ * @param lastSequence the sequence to resume the feed from: the one of the last change
+ *                     in the batch, or the requested one if the batch is empty
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public record SpacecraftChangeBatch(List<SpacecraftChange> changes, long lastSequence) {
+}
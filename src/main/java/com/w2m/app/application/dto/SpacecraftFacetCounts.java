@@ -0,0 +1,17 @@
+package com.w2m.app.application.dto;
+
+import java.util.Map;
+
+/**
+ * Number of spacecrafts per type and per origin. Each facet is counted over the
+ * spacecrafts matching the filter on the other one, so selecting a type still shows
+ * how many spacecrafts every other type has in the selected origin.
+ *
+ * @param total the number of spacecrafts matching both filters
+ * @param types the number of spacecrafts per type, most common first
+ * @param origins the number of spacecrafts per origin, most common first
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public record SpacecraftFacetCounts(long total, Map<String, Long> types, Map<String, Long> origins) {
+}
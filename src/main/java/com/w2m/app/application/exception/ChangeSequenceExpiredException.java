@@ -0,0 +1,18 @@
+package com.w2m.app.application.exception;
+
+/**
+ * Exception thrown when the change feed is requested from a sequence the change log
+ * no longer holds, or never issued. The consumer has to reload the spacecrafts and
+ * resume the feed from the current sequence.
+ */
+public class ChangeSequenceExpiredException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code ChangeSequenceExpiredException} with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ChangeSequenceExpiredException(String message) {
+        super(message);
+    }
+}
@@ -2,8 +2,10 @@ package com.w2m.app.application.exception;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -87,4 +89,41 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleEmptyResultDataAccessException(EmptyResultDataAccessException ex) {
         return new ResponseEntity<>("Recurso no encontrado", HttpStatus.NOT_FOUND);
     }
+
+    /**
+     * Handles {@link ChangeSequenceExpiredException} exceptions, thrown when the change
+     * feed is requested from a sequence that is no longer kept.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} with the exception message and HTTP status 410 (Gone)
+     */
+    @ExceptionHandler(ChangeSequenceExpiredException.class)
+    public ResponseEntity<String> handleChangeSequenceExpiredException(ChangeSequenceExpiredException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.GONE);
+    }
+
+    /**
+     * Handles {@link OptimisticLockingFailureException} exceptions, thrown when a
+     * spacecraft was modified by another request since the version being written.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} with the exception message and HTTP status 409 (Conflict)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles {@link HttpMediaTypeNotAcceptableException} exceptions, thrown when the
+     * response cannot be written in any of the media types the client accepts, such as
+     * Protobuf for a response other than a spacecraft or a page of them.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} without body, since none can be written, and HTTP status 406 (Not Acceptable)
+     */
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<Void> handleHttpMediaTypeNotAcceptableException(HttpMediaTypeNotAcceptableException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+    }
 }
@@ -0,0 +1,38 @@
+package com.w2m.app.application.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The IDs most recently removed from an in-memory structure, kept so a write of the
+ * same spacecraft applied after its deletion is ignored instead of bringing it back.
+ * <p>
+ * The services apply writes once their transaction commits, and two transactions on
+ * the same spacecraft may reach that point in the opposite order to their commits.
+ * IDs come from a sequence and are never reused, so a deleted ID can be refused for
+ * good; only the last {@value #CAPACITY} are remembered, which covers the short
+ * window in which such callbacks can still arrive. Not thread-safe: callers guard it
+ * with the lock of the structure it belongs to.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+final class DeletedIds {
+
+    static final int CAPACITY = 65_536;
+
+    private final Map<Long, Boolean> ids = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    void add(Long id) {
+        ids.put(id, Boolean.TRUE);
+    }
+
+    boolean contains(Long id) {
+        return ids.containsKey(id);
+    }
+}
@@ -0,0 +1,48 @@
+package com.w2m.app.application.search;
+
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Search engine that delegates every query to the database through
+ * {@link SpacecraftRepository#findByNameContaining(String)} in a read-only
+ * transaction. It keeps no state, so write notifications are ignored.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaSpacecraftSearchEngine implements SpacecraftSearchEngine {
+
+    private final SpacecraftRepository spacecraftRepository;
+
+    /**
+     * Constructs a new JpaSpacecraftSearchEngine.
+     *
+     * @param spacecraftRepository the repository used to run the {@code LIKE} queries
+     */
+    public JpaSpacecraftSearchEngine(SpacecraftRepository spacecraftRepository) {
+        this.spacecraftRepository = spacecraftRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Spacecraft> search(String name) {
+        return spacecraftRepository.findByNameContaining(name);
+    }
+
+    @Override
+    public void index(Spacecraft spacecraft) {
+        // Nothing to maintain, the database is the index.
+    }
+
+    @Override
+    public void remove(Long id) {
+        // Nothing to maintain, the database is the index.
+    }
+}
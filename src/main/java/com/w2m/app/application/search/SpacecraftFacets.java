@@ -0,0 +1,194 @@
+package com.w2m.app.application.search;
+
+import com.w2m.app.application.dto.SpacecraftFacetCounts;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import jakarta.annotation.PostConstruct;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory aggregate of the number of spacecrafts per type and origin, so facet
+ * counts never run a {@code GROUP BY} over the table.
+ * <p>
+ * The aggregate keeps one counter per distinct (type, origin) pair, and every
+ * spacecraft ID points to the counter of its pair so an update or delete knows which
+ * one to decrement. Facets are computed from the pair counters, whose number is bounded
+ * by the distinct values of both columns rather than by the number of spacecrafts.
+ * <p>
+ * It is loaded from the database once at startup and then kept up to date by the
+ * services on every create, update and delete. As those may be applied in another
+ * order than they were committed, each ID also remembers the version it was counted
+ * at: an older version is not counted over a newer one, and a deleted spacecraft is
+ * not counted again.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class SpacecraftFacets {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final SpacecraftRepository spacecraftRepository;
+    private final Logger logger = LoggerFactory.getLogger(SpacecraftFacets.class);
+
+    private final Map<Long, Counted> byId = new HashMap<>();
+    private final Map<Bucket, Count> counts = new HashMap<>();
+    private final DeletedIds deleted = new DeletedIds();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a new SpacecraftFacets.
+     *
+     * @param spacecraftRepository the repository used to load the initial counts
+     */
+    public SpacecraftFacets(SpacecraftRepository spacecraftRepository) {
+        this.spacecraftRepository = spacecraftRepository;
+    }
+
+    /**
+     * Counts every spacecraft in the database, walking the table with keyset pagination.
+     */
+    @PostConstruct
+    public void load() {
+        long lastId = 0L;
+        List<Spacecraft> page;
+        do {
+            page = spacecraftRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_PAGE_SIZE));
+            page.forEach(this::index);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        logger.info("Spacecraft facets loaded with {} spacecraft", count(null, null).total());
+    }
+
+    /**
+     * Counts a spacecraft that has been created or updated, moving it out of the
+     * counters of its previous type and origin. Nothing changes if a newer version of
+     * the spacecraft is already counted or it has been deleted.
+     *
+     * @param spacecraft the persisted spacecraft
+     */
+    public void index(Spacecraft spacecraft) {
+        Bucket bucket = new Bucket(spacecraft.getType(), spacecraft.getOrigin());
+        lock.writeLock().lock();
+        try {
+            Counted previous = byId.get(spacecraft.getId());
+            if (deleted.contains(spacecraft.getId()) || previous != null && previous.isNewerThan(spacecraft)) {
+                return;
+            }
+            if (previous != null && previous.count.bucket.equals(bucket)) {
+                byId.put(spacecraft.getId(), new Counted(previous.count, spacecraft.getVersion()));
+                return;
+            }
+            if (previous != null) {
+                decrement(previous.count);
+            }
+            Count count = counts.computeIfAbsent(bucket, Count::new);
+            count.value++;
+            byId.put(spacecraft.getId(), new Counted(count, spacecraft.getVersion()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops counting a spacecraft that has been deleted.
+     *
+     * @param id the ID of the deleted spacecraft
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Counted previous = byId.remove(id);
+            if (previous != null) {
+                decrement(previous.count);
+            }
+            deleted.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the facet counts of the spacecrafts matching the given filters.
+     *
+     * @param type the type to filter by, or {@code null} for every type
+     * @param origin the origin to filter by, or {@code null} for every origin
+     * @return the number of matching spacecrafts and the counts per type and origin
+     */
+    public SpacecraftFacetCounts count(String type, String origin) {
+        Map<String, Long> types = new HashMap<>();
+        Map<String, Long> origins = new HashMap<>();
+        long total = 0;
+        lock.readLock().lock();
+        try {
+            for (Count count : counts.values()) {
+                boolean typeMatches = type == null || type.equals(count.bucket.type());
+                boolean originMatches = origin == null || origin.equals(count.bucket.origin());
+                if (originMatches) {
+                    types.merge(count.bucket.type(), count.value, Long::sum);
+                }
+                if (typeMatches) {
+                    origins.merge(count.bucket.origin(), count.value, Long::sum);
+                }
+                if (typeMatches && originMatches) {
+                    total += count.value;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SpacecraftFacetCounts(total, sorted(types), sorted(origins));
+    }
+
+    private void decrement(Count count) {
+        if (--count.value == 0) {
+            counts.remove(count.bucket);
+        }
+    }
+
+    private static Map<String, Long> sorted(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.nullsLast(Comparator.naturalOrder()))))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private record Bucket(String type, String origin) {
+    }
+
+    /**
+     * The counter a spacecraft is counted in and the version it was counted at.
+     */
+    private record Counted(Count count, Long version) {
+
+        boolean isNewerThan(Spacecraft spacecraft) {
+            return version != null && spacecraft.getVersion() != null && version > spacecraft.getVersion();
+        }
+    }
+
+    private static final class Count {
+
+        private final Bucket bucket;
+        private long value;
+
+        private Count(Bucket bucket) {
+            this.bucket = Objects.requireNonNull(bucket);
+        }
+    }
+}
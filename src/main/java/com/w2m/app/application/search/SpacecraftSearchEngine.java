@@ -0,0 +1,39 @@
+package com.w2m.app.application.search;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.List;
+
+/**
+ * Strategy used by the service layer to resolve name searches. Implementations
+ * are selected with the {@code search.engine} property and are notified of every
+ * write so they can keep any internal structure in sync with the database.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public interface SpacecraftSearchEngine {
+
+    /**
+     * Finds spacecrafts whose name contains the specified string.
+     *
+     * @param name the string to search for within spacecraft names
+     * @return the matching spacecrafts ordered by id
+     */
+    List<Spacecraft> search(String name);
+
+    /**
+     * Registers a spacecraft that has been created or updated. Writes may arrive in
+     * another order than they were committed: implementations keeping their own copy
+     * must ignore a spacecraft older than the one they hold, or already removed.
+     *
+     * @param spacecraft the persisted spacecraft
+     */
+    void index(Spacecraft spacecraft);
+
+    /**
+     * Removes a spacecraft that has been deleted.
+     *
+     * @param id the ID of the deleted spacecraft
+     */
+    void remove(Long id);
+}
@@ -0,0 +1,193 @@
+package com.w2m.app.application.search;
+
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory search engine that answers substring queries over {@link Spacecraft#getName()}
+ * using an inverted trigram index, so name searches never reach the database.
+ * <p>
+ * Every name is split into its overlapping three-character grams and each gram keeps
+ * the set of spacecraft IDs containing it. A query is resolved by intersecting the
+ * posting sets of its own grams (smallest first) and verifying the surviving candidates
+ * with {@link String#contains(CharSequence)}, which keeps the same case-sensitive
+ * semantics as the {@code LIKE '%name%'} query it replaces. Queries shorter than a
+ * trigram fall back to a scan of the in-memory documents.
+ * <p>
+ * The index is loaded from the database once at startup, before the web server accepts
+ * traffic, and is then kept up to date by the service on every create, update and delete.
+ * Those writes may arrive out of order, so a spacecraft older than the indexed one is
+ * ignored, and so is any write of a spacecraft already removed.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "index")
+public class TrigramSpacecraftSearchEngine implements SpacecraftSearchEngine {
+
+    static final int GRAM_LENGTH = 3;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final SpacecraftRepository spacecraftRepository;
+    private final Logger logger = LoggerFactory.getLogger(TrigramSpacecraftSearchEngine.class);
+
+    private final Map<Long, Spacecraft> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final DeletedIds deleted = new DeletedIds();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a new TrigramSpacecraftSearchEngine.
+     *
+     * @param spacecraftRepository the repository used to load the initial contents of the index
+     */
+    public TrigramSpacecraftSearchEngine(SpacecraftRepository spacecraftRepository) {
+        this.spacecraftRepository = spacecraftRepository;
+    }
+
+    /**
+     * Loads every spacecraft from the database into the index, walking the table with
+     * keyset pagination so the persistence context never holds the whole catalog at once.
+     */
+    @PostConstruct
+    public void load() {
+        long lastId = 0L;
+        List<Spacecraft> page;
+        do {
+            page = spacecraftRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_PAGE_SIZE));
+            page.forEach(this::index);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        logger.info("Trigram search index loaded with {} spacecraft", size());
+    }
+
+    @Override
+    public List<Spacecraft> search(String name) {
+        lock.readLock().lock();
+        try {
+            List<Spacecraft> result = new ArrayList<>();
+            for (Long id : candidates(name)) {
+                Spacecraft spacecraft = documents.get(id);
+                if (spacecraft.getName().contains(name)) {
+                    result.add(spacecraft);
+                }
+            }
+            result.sort(Comparator.comparing(Spacecraft::getId));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Spacecraft spacecraft) {
+        Spacecraft snapshot = new Spacecraft(
+                spacecraft.getId(), spacecraft.getName(), spacecraft.getType(), spacecraft.getOrigin(),
+                spacecraft.getVersion());
+        lock.writeLock().lock();
+        try {
+            Spacecraft previous = documents.get(snapshot.getId());
+            if (deleted.contains(snapshot.getId()) || isNewer(previous, snapshot)) {
+                return;
+            }
+            documents.put(snapshot.getId(), snapshot);
+            if (previous != null) {
+                unlink(previous);
+            }
+            for (String gram : grams(snapshot.getName())) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(snapshot.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Spacecraft previous = documents.remove(id);
+            if (previous != null) {
+                unlink(previous);
+            }
+            deleted.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of spacecraft currently indexed.
+     *
+     * @return the number of indexed documents
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> candidates(String name) {
+        if (name.length() < GRAM_LENGTH) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(name)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static boolean isNewer(Spacecraft indexed, Spacecraft spacecraft) {
+        return indexed != null && indexed.getVersion() != null && spacecraft.getVersion() != null
+                && indexed.getVersion() > spacecraft.getVersion();
+    }
+
+    private void unlink(Spacecraft spacecraft) {
+        for (String gram : grams(spacecraft.getName())) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(spacecraft.getId()) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
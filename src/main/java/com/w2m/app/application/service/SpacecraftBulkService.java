@@ -0,0 +1,191 @@
+package com.w2m.app.application.service;
+
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.dto.BulkItemResult;
+import com.w2m.app.application.dto.BulkItemResult.Status;
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.SpacecraftSearchEngine;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class for creating and updating spacecrafts in bulk.
+ * <p>
+ * Items are processed in chunks of {@code spacecraft.bulk.chunk-size}. Each chunk runs
+ * in its own transaction: the existing spacecrafts referenced by the chunk are loaded
+ * with a single {@code IN} query, new ones are persisted with IDs taken from the pooled
+ * sequence, and the persistence context is flushed and cleared at the end so Hibernate
+ * sends the statements as JDBC batches and memory stays bounded. If a chunk fails, its
+ * items are retried one by one so a single bad item does not fail its neighbours.
+ * <p>
+ * An update carrying a {@code version} only applies if the spacecraft still has it,
+ * and is reported as a {@link Status#CONFLICT} otherwise, as is an update that loses a
+ * race with a concurrent write. An update without {@code version} overwrites the
+ * spacecraft whatever its version: the last writer wins.
+ * The spacecrafts written by a chunk are recorded in the {@link SpacecraftChangeLog}
+ * once it has committed.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Service
+public class SpacecraftBulkService {
+
+    private final SpacecraftRepository spacecraftRepository;
+    private final SpacecraftSearchEngine searchEngine;
+    private final SpacecraftCache spacecraftCache;
+    private final SpacecraftFacets facets;
+    private final SpacecraftChangeLog changeLog;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Logger logger = LoggerFactory.getLogger(SpacecraftBulkService.class);
+
+    /**
+     * Constructs a new SpacecraftBulkService.
+     *
+     * @param spacecraftRepository the repository used to load existing spacecrafts
+     * @param searchEngine the search engine notified of every write
+     * @param spacecraftCache the cache maintainer notified of every write
+     * @param facets the facet counts notified of every write
+     * @param changeLog the change log every write is recorded in
+     * @param entityManager the entity manager used to persist, flush and clear each chunk
+     * @param transactionTemplate the template used to run each chunk in its own transaction
+     * @param chunkSize the number of items processed per transaction
+     */
+    public SpacecraftBulkService(SpacecraftRepository spacecraftRepository, SpacecraftSearchEngine searchEngine,
+                                 SpacecraftCache spacecraftCache, SpacecraftFacets facets,
+                                 SpacecraftChangeLog changeLog, EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${spacecraft.bulk.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Bulk chunk size must be positive: " + chunkSize);
+        }
+        this.spacecraftRepository = spacecraftRepository;
+        this.searchEngine = searchEngine;
+        this.spacecraftCache = spacecraftCache;
+        this.facets = facets;
+        this.changeLog = changeLog;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates or updates every spacecraft provided. Items without ID are created;
+     * items with an ID update the existing spacecraft and fail if it does not exist,
+     * or conflict if it no longer has the item's version.
+     *
+     * @param spacecrafts the items to create or update, consumed lazily
+     * @return one result per item, in the order they were provided
+     */
+    public List<BulkItemResult> upsertAll(Iterator<Spacecraft> spacecrafts) {
+        List<BulkItemResult> results = new ArrayList<>();
+        List<Spacecraft> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (spacecrafts.hasNext()) {
+            chunk.add(spacecrafts.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(upsertChunk(index, chunk));
+                index += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(upsertChunk(index, chunk));
+        }
+        return results;
+    }
+
+    private List<BulkItemResult> upsertChunk(int firstIndex, List<Spacecraft> chunk) {
+        List<Spacecraft> saved = new ArrayList<>(chunk.size());
+        List<BulkItemResult> results;
+        try {
+            results = transactionTemplate.execute(status -> writeChunk(firstIndex, chunk, saved));
+        } catch (RuntimeException ex) {
+            logger.warn("Bulk chunk starting at item {} failed, retrying its items one by one", firstIndex, ex);
+            saved.clear();
+            results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(upsertSingle(firstIndex + i, chunk.get(i), saved));
+            }
+        }
+        saved.forEach(searchEngine::index);
+        saved.forEach(facets::index);
+        spacecraftCache.putAll(saved);
+        Set<Long> created = results.stream()
+                .filter(result -> result.status() == Status.CREATED)
+                .map(BulkItemResult::id)
+                .collect(Collectors.toSet());
+        saved.forEach(spacecraft -> changeLog.record(created.contains(spacecraft.getId())
+                ? SpacecraftChange.Type.CREATED : SpacecraftChange.Type.UPDATED, spacecraft.getId(), spacecraft));
+        return results;
+    }
+
+    private BulkItemResult upsertSingle(int index, Spacecraft spacecraft, List<Spacecraft> saved) {
+        List<Spacecraft> single = new ArrayList<>(1);
+        try {
+            BulkItemResult result = transactionTemplate.execute(status -> writeChunk(index, List.of(spacecraft), single).get(0));
+            saved.addAll(single);
+            return result;
+        } catch (OptimisticLockException | OptimisticLockingFailureException ex) {
+            return BulkItemResult.conflict(index, spacecraft.getId(),
+                    "Spacecraft " + spacecraft.getId() + " was modified concurrently");
+        } catch (RuntimeException ex) {
+            return BulkItemResult.failed(index, spacecraft.getId(), ex.getMessage());
+        }
+    }
+
+    private List<BulkItemResult> writeChunk(int firstIndex, List<Spacecraft> chunk, List<Spacecraft> saved) {
+        List<Long> ids = chunk.stream().map(Spacecraft::getId).filter(id -> id != null).toList();
+        Map<Long, Spacecraft> existing = ids.isEmpty() ? Map.of() : spacecraftRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Spacecraft::getId, Function.identity()));
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Spacecraft item = chunk.get(i);
+            int index = firstIndex + i;
+            if (item.getName() == null || item.getType() == null || item.getOrigin() == null) {
+                results.add(BulkItemResult.failed(index, item.getId(), "name, type and origin are required"));
+            } else if (item.getId() == null) {
+                Spacecraft created = new Spacecraft(null, item.getName(), item.getType(), item.getOrigin());
+                entityManager.persist(created);
+                saved.add(created);
+                results.add(BulkItemResult.success(index, created.getId(), Status.CREATED));
+            } else if (existing.containsKey(item.getId())) {
+                Spacecraft ship = existing.get(item.getId());
+                if (item.getVersion() != null && !item.getVersion().equals(ship.getVersion())) {
+                    results.add(BulkItemResult.conflict(index, item.getId(),
+                            "Spacecraft " + item.getId() + " no longer has version " + item.getVersion()));
+                    continue;
+                }
+                ship.setName(item.getName());
+                ship.setType(item.getType());
+                ship.setOrigin(item.getOrigin());
+                saved.add(ship);
+                results.add(BulkItemResult.success(index, ship.getId(), Status.UPDATED));
+            } else {
+                results.add(BulkItemResult.failed(index, item.getId(), "Spacecraft not found with id: " + item.getId()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return results;
+    }
+}
@@ -0,0 +1,75 @@
+package com.w2m.app.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class that exports the whole spacecraft catalog as newline-delimited
+ * JSON (NDJSON). Spacecrafts are read from a database stream and written one by
+ * one to the target output stream, and each entity is detached right after being
+ * written, so memory usage does not depend on the size of the catalog.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Service
+public class SpacecraftExportService {
+
+    private final SpacecraftRepository spacecraftRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a new SpacecraftExportService.
+     *
+     * @param spacecraftRepository the repository providing the spacecraft stream
+     * @param entityManager the entity manager used to detach exported entities
+     * @param objectMapper the object mapper used to serialize each spacecraft
+     */
+    public SpacecraftExportService(SpacecraftRepository spacecraftRepository, EntityManager entityManager,
+                                   ObjectMapper objectMapper) {
+        this.spacecraftRepository = spacecraftRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(Spacecraft.class);
+    }
+
+    /**
+     * Writes every spacecraft to the given output stream, one JSON document per line.
+     * The output stream is flushed but not closed.
+     *
+     * @param out the output stream to write to
+     * @return the number of spacecrafts exported
+     * @throws IOException if writing to the output stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportAll(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Spacecraft> spacecrafts = spacecraftRepository.streamAllByOrderByIdAsc();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Spacecraft> iterator = spacecrafts.iterator();
+            while (iterator.hasNext()) {
+                Spacecraft spacecraft = iterator.next();
+                writer.writeValue(generator, spacecraft);
+                generator.writeRaw('\n');
+                entityManager.detach(spacecraft);
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -1,130 +1,467 @@
 package com.w2m.app.application.service;
 
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.dto.SpacecraftFacetCounts;
 import com.w2m.app.application.exception.NegativeIdException;
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.SpacecraftSearchEngine;
 import com.w2m.app.domino.model.Spacecraft;
 import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.domino.repository.SpacecraftSpecifications;
+import com.w2m.app.infraestructura.cache.SingleFlight;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service class for managing spacecraft operations, including retrieving,
  * creating, updating, and deleting spacecraft data. It also handles
- * searching for spacecraft by name and caching the results.
+ * searching for spacecraft by name and caching the results. Concurrent
+ * cache misses for the same key share one load through {@link SingleFlight},
+ * every write is propagated to the caches through {@link SpacecraftCache}, to the
+ * search index and to the facet counts through {@link SpacecraftFacets} once its
+ * transaction has committed, every write is recorded in the
+ * {@link SpacecraftChangeLog}, and every method is timed under the
+ * {@code spacecraft.service} metric. Loads only cache their result if no write of
+ * the same key was propagated while they were reading, see {@link SpacecraftCache}.
  *
  * @author Angel Lf Morante
  * @version 1.0
  */
 @Service
+@Timed(value = "spacecraft.service", description = "Time spent in SpacecraftService methods", histogram = true)
 public class SpacecraftService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    static final int MAX_BATCH_IDS = 1000;
+    static final int MAX_PREFIX_RESULTS = 100;
+
     private final SpacecraftRepository spacecraftRepository;
+    private final SpacecraftSearchEngine searchEngine;
+    private final SpacecraftCache spacecraftCache;
+    private final SingleFlight singleFlight;
+    private final SpacecraftFacets facets;
+    private final SpacecraftChangeLog changeLog;
     private final Logger logger = LoggerFactory.getLogger(SpacecraftService.class);
 
     /**
      * Constructs a new SpacecraftService with the specified spacecraft repository.
      *
      * @param spacecraftRepository the spacecraft repository to be used by the service
+     * @param searchEngine the engine used to resolve name searches, selected with {@code search.engine}
+     * @param spacecraftCache the cache maintainer notified of every write
+     * @param singleFlight the coalescer shared by concurrent cache misses
+     * @param facets the facet counts notified of every write
+     * @param changeLog the change log every write is recorded in
      */
-    public SpacecraftService(SpacecraftRepository spacecraftRepository) {
+    public SpacecraftService(SpacecraftRepository spacecraftRepository, SpacecraftSearchEngine searchEngine,
+                             SpacecraftCache spacecraftCache, SingleFlight singleFlight, SpacecraftFacets facets,
+                             SpacecraftChangeLog changeLog) {
         this.spacecraftRepository = spacecraftRepository;
+        this.searchEngine = searchEngine;
+        this.spacecraftCache = spacecraftCache;
+        this.singleFlight = singleFlight;
+        this.facets = facets;
+        this.changeLog = changeLog;
     }
 
     /**
-     * Retrieves all spacecrafts with pagination.
+     * Retrieves all spacecrafts with pagination. The page is read in a read-only
+     * transaction and its spacecrafts are not attached to the persistence context.
      *
      * @param pageable the pagination information
      * @return a page of spacecrafts
      */
+    @Transactional(readOnly = true)
     public Page<Spacecraft> getAllSpacecraft(Pageable pageable){
-        logger.info("Fetching all spacecraft with pagination: {}", pageable);
-        return spacecraftRepository.findAll(pageable);
+        return spacecraftRepository.findAllDetached(pageable);
+    }
+
+    /**
+     * Retrieves a page of spacecrafts using keyset pagination. The page starts right
+     * after the ID encoded in the cursor, so its cost does not grow with the depth
+     * of the page and no total count is computed. The page is read in a read-only
+     * transaction and its spacecrafts are not attached to the persistence context.
+     *
+     * @param cursor the opaque cursor returned with the previous page, or blank for the first page
+     * @param size the maximum number of spacecrafts in the page
+     * @return the page of spacecrafts and the cursor of the next one
+     * @throws IllegalArgumentException if the cursor is invalid or the size is out of range
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Spacecraft> getSpacecraftPage(String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE + ": " + size);
+        }
+        long after = CursorPage.decode(cursor);
+        List<Spacecraft> rows = spacecraftRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Spacecraft> content = rows.subList(0, size);
+        return new CursorPage<>(content, CursorPage.encode(content.get(size - 1).getId()));
+    }
+
+    /**
+     * Retrieves a page of the spacecrafts matching every given filter. A blank filter
+     * matches every spacecraft.
+     *
+     * @param type the exact type of the spacecrafts
+     * @param origin the exact origin of the spacecrafts
+     * @param name a string the name of the spacecrafts must contain
+     * @param pageable the pagination information
+     * @return a page of the matching spacecrafts
+     */
+    @Transactional(readOnly = true)
+    public Page<Spacecraft> filterSpacecraft(String type, String origin, String name, Pageable pageable) {
+        return spacecraftRepository.findAll(Specification.allOf(
+                SpacecraftSpecifications.hasType(blankToNull(type)),
+                SpacecraftSpecifications.hasOrigin(blankToNull(origin)),
+                SpacecraftSpecifications.nameContains(blankToNull(name))), pageable);
+    }
+
+    /**
+     * Returns the number of spacecrafts per type and per origin, from the in-memory
+     * aggregate maintained on every write. Each facet is counted over the spacecrafts
+     * matching the filter on the other one. A blank filter matches every spacecraft.
+     *
+     * @param type the type to filter the origin counts by
+     * @param origin the origin to filter the type counts by
+     * @return the facet counts
+     */
+    public SpacecraftFacetCounts getSpacecraftFacets(String type, String origin) {
+        return facets.count(blankToNull(type), blankToNull(origin));
     }
 
     /**
      * Retrieves a spacecraft by its ID, using caching to improve performance.
+     * Concurrent misses for the same ID share a single database load, and IDs that
+     * were not found are remembered in {@code spacecraftByIdMissing} rather than in
+     * {@code spacecraftById}.
      *
      * @param id the ID of the spacecraft to retrieve
      * @return an optional containing the spacecraft, or empty if not found
      * @throws NegativeIdException if the provided ID is negative
      */
-    @Cacheable("spacecraftById")
     public Optional<Spacecraft> getSpacecraftById(Long id){
         if (id < 0) {
-            logger.error("Attempted to fetch spacecraft with negative ID: {}", id);
+            logger.debug("Attempted to fetch spacecraft with negative ID: {}", id);
             throw new NegativeIdException("El ID proporcionado no puede ser negativo: " + id);
         }
-        logger.info("Fetching spacecraft with ID: {}", id);
-        return spacecraftRepository.findById(id);
+        Spacecraft cached = spacecraftCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (spacecraftCache.isMissing(id)) {
+            return Optional.empty();
+        }
+        return singleFlight.load(SpacecraftCache.BY_ID, id, () -> {
+            long generation = spacecraftCache.idGeneration(id);
+            Optional<Spacecraft> spacecraft = spacecraftRepository.findById(id);
+            if (spacecraft.isPresent()) {
+                spacecraftCache.putLoaded(spacecraft.get(), generation);
+            } else {
+                spacecraftCache.markMissing(id, generation);
+            }
+            return spacecraft;
+        });
+    }
+
+    /**
+     * Retrieves several spacecrafts by their IDs. The hits are read from
+     * {@code spacecraftById} in one pass, and the misses are loaded with a single
+     * {@code IN} query and cached. IDs recently found missing are not queried again.
+     *
+     * @param ids the IDs of the spacecrafts to retrieve
+     * @return the spacecrafts found, in the order of their first occurrence in {@code ids}
+     * @throws NegativeIdException if any of the provided IDs is negative
+     * @throws IllegalArgumentException if more than {@value #MAX_BATCH_IDS} IDs are requested
+     */
+    public List<Spacecraft> getSpacecraftsByIds(List<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " IDs can be requested: " + unique.size());
+        }
+        for (Long id : unique) {
+            if (id < 0) {
+                logger.debug("Attempted to fetch spacecraft with negative ID: {}", id);
+                throw new NegativeIdException("El ID proporcionado no puede ser negativo: " + id);
+            }
+        }
+        Map<Long, Spacecraft> found = new HashMap<>(spacecraftCache.getAllPresent(unique));
+        List<Long> misses = unique.stream()
+                .filter(id -> !found.containsKey(id) && !spacecraftCache.isMissing(id))
+                .toList();
+        if (!misses.isEmpty()) {
+            Map<Long, Long> generations = new HashMap<>();
+            misses.forEach(id -> generations.put(id, spacecraftCache.idGeneration(id)));
+            List<Spacecraft> loaded = spacecraftRepository.findAllById(misses);
+            spacecraftCache.putLoaded(loaded, generations);
+            loaded.forEach(spacecraft -> found.put(spacecraft.getId(), spacecraft));
+            misses.stream()
+                    .filter(id -> !found.containsKey(id))
+                    .forEach(id -> spacecraftCache.markMissing(id, generations.get(id)));
+        }
+        return unique.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
     /**
      * Searches for spacecrafts by name, using caching to improve performance.
+     * Concurrent misses for the same name share a single search.
      *
      * @param name the name or partial name to search for
      * @return a list of spacecrafts that contain the specified name
      */
-    @Cacheable("spacecraftByName")
     public List<Spacecraft> searchSpacecraftByName(String name){
-        logger.info("Searching for spacecraft with name containing: {}", name);
-        return spacecraftRepository.findByNameContaining(name);
+        List<Spacecraft> cached = spacecraftCache.getSearch(name);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.load(SpacecraftCache.BY_NAME, name, () -> {
+            long generation = spacecraftCache.nameGeneration();
+            List<Spacecraft> result = searchEngine.search(name);
+            spacecraftCache.putSearch(name, result, generation);
+            return result;
+        });
     }
 
     /**
-     * Creates a new spacecraft in the system.
+     * Finds spacecrafts whose name starts with the given prefix, ignoring case, as
+     * autocomplete does. Unlike {@link #searchSpacecraftByName(String)} the results are
+     * not cached: the query is a range scan of the index on the normalized name and
+     * returns at most {@code limit} rows, in name order.
+     *
+     * @param prefix the start of the names to find
+     * @param limit the maximum number of spacecrafts to return
+     * @return the spacecrafts whose name starts with the prefix
+     * @throws IllegalArgumentException if the prefix is blank or the limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<Spacecraft> searchSpacecraftByNamePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_PREFIX_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PREFIX_RESULTS + ": " + limit);
+        }
+        return spacecraftRepository.findByNamePrefix(prefix.toLowerCase(Locale.ROOT), Limit.of(limit));
+    }
+
+    /**
+     * Creates a new spacecraft in the system, writes it through to the caches once
+     * it is committed and records its creation in the change log.
      *
      * @param spacecraft the spacecraft to be created
      * @return the created spacecraft
      */
     public Spacecraft createSpacecraft(Spacecraft spacecraft){
-        logger.info("Creating new spacecraft with name: {}", spacecraft.getName());
-        return spacecraftRepository.save(spacecraft);
+        // A version sent by the client would make Spring Data merge instead of persist.
+        spacecraft.setVersion(null);
+        Spacecraft created = spacecraftRepository.save(spacecraft);
+        propagateAfterCommit(created);
+        changeLog.record(SpacecraftChange.Type.CREATED, created.getId(), created);
+        return created;
     }
 
     /**
-     * Updates the details of an existing spacecraft. If the spacecraft with the
-     * given ID does not exist, an exception is thrown.
+     * Updates the details of an existing spacecraft, writes it through to the caches
+     * and records the update in the change log once committed. If the spacecraft
+     * with the given ID does not exist, an exception is thrown.
+     * The spacecraft is read and written in the same transaction, so it is read from
+     * the primary even when reads are routed to replicas.
      *
      * @param id the ID of the spacecraft to update
      * @param spacecraft the new spacecraft data
      * @return the updated spacecraft
      * @throws EntityNotFoundException if the spacecraft with the given ID is not found
+     * @throws OptimisticLockingFailureException if a concurrent update committed first
      */
+    @Transactional
     public Spacecraft updateSpacecraft(Long id, Spacecraft spacecraft){
-        logger.info("Updating spacecraft with ID: {}", id);
+        return updateSpacecraft(id, spacecraft, null);
+    }
+
+    /**
+     * Updates the details of an existing spacecraft if it still has the expected
+     * version, writes it through to the caches and records the update in the change
+     * log once committed. The update is flushed in the method, so an update that loses
+     * the race against a concurrent one fails here, through the version check of its
+     * {@code UPDATE}, rather than when the transaction commits.
+     *
+     * @param id the ID of the spacecraft to update
+     * @param spacecraft the new spacecraft data
+     * @param expectedVersion the version the spacecraft must have, or {@code null} for any
+     * @return the updated spacecraft
+     * @throws EntityNotFoundException if the spacecraft with the given ID is not found
+     * @throws OptimisticLockingFailureException if the spacecraft has another version,
+     *         or a concurrent update committed first
+     */
+    @Transactional
+    public Spacecraft updateSpacecraft(Long id, Spacecraft spacecraft, Long expectedVersion){
         return spacecraftRepository.findById(id).map(
                         ship -> {
+                            if (expectedVersion != null && !expectedVersion.equals(ship.getVersion())) {
+                                throw versionConflict(id, expectedVersion);
+                            }
                             ship.setName(spacecraft.getName());
                             ship.setType(spacecraft.getType());
                             ship.setOrigin(spacecraft.getOrigin());
-                            logger.info("Spacecraft with ID {} updated", id);
-                            return spacecraftRepository.save(ship);
+                            Spacecraft updated = spacecraftRepository.saveAndFlush(ship);
+                            propagateAfterCommit(updated);
+                            changeLog.record(SpacecraftChange.Type.UPDATED, id, updated);
+                            return updated;
                         })
                 .orElseThrow(() -> {
-                    logger.error("Spacecraft with ID {} not found for update", id);
+                    logger.debug("Spacecraft with ID {} not found for update", id);
+                    return new EntityNotFoundException("Spacecraft not found with id: " + id);
+                });
+    }
+
+    /**
+     * Applies the non-null name, type and origin of {@code changes} to a spacecraft if
+     * it still has the expected version. Unlike {@link #updateSpacecraft(Long, Spacecraft, Long)}
+     * the spacecraft is not read first: a single {@code UPDATE ... WHERE id = ? AND
+     * version = ?} writes it and returns the updated row, so a concurrent write fails
+     * fast instead of being overwritten. The spacecraft is only looked up again when
+     * nothing was updated, to tell a missing spacecraft from a version conflict.
+     *
+     * @param id the ID of the spacecraft to update
+     * @param changes the values to change, {@code null} for the ones to keep
+     * @param expectedVersion the version the spacecraft must have
+     * @return the updated spacecraft
+     * @throws IllegalArgumentException if there is nothing to change
+     * @throws EntityNotFoundException if the spacecraft with the given ID is not found
+     * @throws OptimisticLockingFailureException if the spacecraft has another version
+     */
+    @Transactional
+    public Spacecraft patchSpacecraft(Long id, Spacecraft changes, long expectedVersion) {
+        if (changes.getName() == null && changes.getType() == null && changes.getOrigin() == null) {
+            throw new IllegalArgumentException("At least one of name, type and origin must be given");
+        }
+        Spacecraft patched = spacecraftRepository.updateIfVersion(
+                        id, changes.getName(), changes.getType(), changes.getOrigin(), expectedVersion)
+                .orElseThrow(() -> {
+                    if (spacecraftRepository.existsById(id)) {
+                        return versionConflict(id, expectedVersion);
+                    }
+                    logger.debug("Spacecraft with ID {} not found for update", id);
                     return new EntityNotFoundException("Spacecraft not found with id: " + id);
                 });
+        propagateAfterCommit(patched);
+        changeLog.record(SpacecraftChange.Type.UPDATED, id, patched);
+        return patched;
     }
 
     /**
-     * Deletes a spacecraft from the system by its ID.
+     * Deletes a spacecraft from the system by its ID, evicts it from the caches and
+     * records the deletion in the change log once committed. The delete is a single
+     * statement, and the number of rows it removed tells whether the spacecraft existed.
      *
      * @param id the ID of the spacecraft to delete
+     * @throws EntityNotFoundException if no spacecraft has the given ID
      */
+    @Transactional
     public void deleteSpacecraft(Long id) {
-        logger.info("Attempting to delete spacecraft with ID: {}", id);
-        if (!spacecraftRepository.existsById(id)) {
-            logger.error("Spacecraft with ID {} not found for deletion", id);
+        if (spacecraftRepository.deleteAllByIdIn(List.of(id)) == 0) {
+            logger.debug("Spacecraft with ID {} not found for deletion", id);
             throw new EntityNotFoundException("Spacecraft not found with id: " + id);
         }
-        spacecraftRepository.deleteById(id);
-        logger.info("Spacecraft with ID {} deleted", id);
+        afterCommit(() -> {
+            searchEngine.remove(id);
+            facets.remove(id);
+            spacecraftCache.evict(id);
+        });
+        changeLog.record(SpacecraftChange.Type.DELETED, id, null);
+    }
+
+    /**
+     * Deletes several spacecrafts by their IDs with a single statement, evicts them
+     * from the caches in one pass and records each deletion in the change log once
+     * committed. IDs that do not exist are ignored.
+     *
+     * @param ids the IDs of the spacecrafts to delete
+     * @return the IDs of the spacecrafts deleted
+     * @throws EntityNotFoundException if none of the IDs exists
+     * @throws IllegalArgumentException if more than {@value #MAX_BATCH_IDS} IDs are given
+     */
+    @Transactional
+    public List<Long> deleteSpacecrafts(List<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.isEmpty() || unique.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH_IDS + " IDs can be deleted: " + unique.size());
+        }
+        List<Long> deleted = spacecraftRepository.deleteAllByIdInReturningIds(unique);
+        if (deleted.isEmpty()) {
+            logger.debug("None of the spacecraft with IDs {} found for deletion", unique);
+            throw new EntityNotFoundException("Spacecraft not found with ids: " + unique);
+        }
+        afterCommit(() -> {
+            deleted.forEach(searchEngine::remove);
+            deleted.forEach(facets::remove);
+            spacecraftCache.evictAll(deleted);
+        });
+        deleted.forEach(id -> changeLog.record(SpacecraftChange.Type.DELETED, id, null));
+        return deleted;
+    }
+
+    private void propagateAfterCommit(Spacecraft spacecraft) {
+        afterCommit(() -> {
+            searchEngine.index(spacecraft);
+            facets.index(spacecraft);
+            spacecraftCache.put(spacecraft);
+        });
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or at once if there is no
+     * transaction, so readers never see a write that may still roll back. Registered
+     * before the change is recorded, the caches are up to date when consumers of the
+     * change log are notified.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private OptimisticLockingFailureException versionConflict(Long id, long expectedVersion) {
+        logger.debug("Spacecraft with ID {} no longer has version {}", id, expectedVersion);
+        return new OptimisticLockingFailureException(
+                "Spacecraft " + id + " has been modified, it no longer has version " + expectedVersion);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 
 }
@@ -1,14 +1,19 @@
 package com.w2m.app.domino.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import java.util.Objects;
 
 /**
  * Represents a spacecraft entity with details such as name, type, and origin.
  * This class is mapped to the database table for storing spacecraft information.
+ * Its version is incremented on every update and identifies each state of the
+ * spacecraft, but it is not part of its equality.
  *
  * @author Angel Lf Morante
  * @version 1.0
@@ -17,11 +22,19 @@ import java.util.Objects;
 public class Spacecraft {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spacecraft_seq")
+    @SequenceGenerator(name = "spacecraft_seq", sequenceName = "spacecraft_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
     private String name;
     private String type;
     private String origin;
+    @Version
+    private Long version;
+    /**
+     * Lower-cased name, generated by the database and only used by prefix searches.
+     */
+    @Column(name = "name_normalized", insertable = false, updatable = false)
+    private String nameNormalized;
 
     /**
      * Constructs a new Spacecraft with the specified details.
@@ -38,6 +51,20 @@ public class Spacecraft {
         this.origin = origin;
     }
 
+    /**
+     * Constructs a new Spacecraft with the specified details and version.
+     *
+     * @param id the unique identifier of the spacecraft
+     * @param name the name of the spacecraft
+     * @param type the type of the spacecraft (e.g., Fighter, Transport)
+     * @param origin the origin of the spacecraft (e.g., Earth, Outer Space)
+     * @param version the version of the spacecraft
+     */
+    public Spacecraft(Long id, String name, String type, String origin, Long version) {
+        this(id, name, type, origin);
+        this.version = version;
+    }
+
     /**
      * Default constructor for creating a new Spacecraft without initial values.
      */
@@ -116,6 +143,24 @@ public class Spacecraft {
         this.origin = origin;
     }
 
+    /**
+     * Gets the version of the spacecraft, or {@code null} if it has not been persisted.
+     *
+     * @return the version of the spacecraft
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the spacecraft.
+     *
+     * @param version the new version of the spacecraft
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Compares this spacecraft to the specified object. The result is true if the
      * object is a spacecraft with the same id, name, type, and origin.
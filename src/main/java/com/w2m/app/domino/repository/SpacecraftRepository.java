@@ -1,24 +1,148 @@
 package com.w2m.app.domino.repository;
 
 import com.w2m.app.domino.model.Spacecraft;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository interface for accessing and managing spacecraft data in the database.
- * Extends JpaRepository to leverage basic CRUD operations and custom query methods.
+ * Extends JpaRepository to leverage basic CRUD operations and custom query methods,
+ * and JpaSpecificationExecutor to run the filters built from {@link SpacecraftSpecifications}.
+ * <p>
+ * The read paths behind the list and search endpoints select the columns into
+ * {@link Spacecraft} with a constructor expression instead of loading entities, so the
+ * rows are never attached to the persistence context: Hibernate keeps no entity entry
+ * or dirty-checking snapshot for them, even when the session stays open until the
+ * response is serialized.
  *
  * @author Angel Lf Morante
  * @version 1.0
  */
-public interface SpacecraftRepository extends JpaRepository <Spacecraft, Long> {
+public interface SpacecraftRepository extends JpaRepository <Spacecraft, Long>, JpaSpecificationExecutor<Spacecraft> {
+
+    /**
+     * Selects every column of a spacecraft into an unmanaged {@link Spacecraft}.
+     */
+    String SELECT_DETACHED =
+            "SELECT new com.w2m.app.domino.model.Spacecraft(s.id, s.name, s.type, s.origin, s.version) FROM Spacecraft s";
+
+    /**
+     * Finds a page of spacecrafts without attaching them to the persistence context.
+     *
+     * @param pageable the pagination information
+     * @return a page of unmanaged spacecrafts
+     */
+    @Query(value = SELECT_DETACHED, countQuery = "SELECT count(s) FROM Spacecraft s")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Page<Spacecraft> findAllDetached(Pageable pageable);
 
     /**
      * Finds spacecrafts whose name contains the specified string.
      * This method is used to search for spacecraft by a part of their name.
+     * The spacecrafts are not attached to the persistence context.
      *
      * @param name the string to search for within spacecraft names
      * @return a list of spacecrafts whose name contains the specified string
      */
-    List<Spacecraft> findByNameContaining(String name);
+    @Query(SELECT_DETACHED + " WHERE s.name LIKE %:#{escape(#name)}% ESCAPE :#{escapeCharacter()}")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Spacecraft> findByNameContaining(@Param("name") String name);
+
+    /**
+     * Finds the spacecrafts whose lower-cased name starts with the given prefix, in
+     * name order. The prefix must already be lower-cased; {@code %} and {@code _} in it
+     * are matched literally. The query is a range scan of the index on
+     * {@code name_normalized}, and the spacecrafts are not attached to the persistence context.
+     *
+     * @param prefix the lower-cased start of the names to find
+     * @param limit the maximum number of spacecrafts to return
+     * @return the spacecrafts whose name starts with the prefix, ignoring case
+     */
+    @Query(SELECT_DETACHED + " WHERE s.nameNormalized LIKE :#{escape(#prefix)}% ESCAPE :#{escapeCharacter()}"
+            + " ORDER BY s.nameNormalized, s.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Spacecraft> findByNamePrefix(@Param("prefix") String prefix, Limit limit);
+
+    /**
+     * Finds the spacecrafts that follow the given ID in ID order. This is the seek
+     * query behind keyset pagination ({@code WHERE id > :id ORDER BY id LIMIT n}):
+     * it walks the primary key index and never needs an {@code OFFSET} or a count.
+     * The spacecrafts are not attached to the persistence context.
+     *
+     * @param id the last ID already returned to the client
+     * @param limit the maximum number of spacecrafts to return
+     * @return the spacecrafts with an ID greater than the given one, in ascending ID order
+     */
+    @Query(SELECT_DETACHED + " WHERE s.id > :id ORDER BY s.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Spacecraft> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    /**
+     * Streams every spacecraft in ID order over a scrollable result set. Rows are
+     * fetched from the driver in batches of 1000 and loaded
+     * read-only, so no dirty-checking snapshot is kept for them. The stream must be
+     * consumed inside a transaction and closed afterwards.
+     *
+     * @return a stream over all the spacecrafts
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Spacecraft> streamAllByOrderByIdAsc();
+
+    /**
+     * Applies the given values to a spacecraft if it still has the expected version,
+     * incrementing the version, in a single statement and without reading the row
+     * first. Null values leave their column unchanged. The statement is an H2 data
+     * change delta table ({@code SELECT ... FROM FINAL TABLE (UPDATE ...)}), so the
+     * updated row comes back in the same round trip.
+     *
+     * @param id the ID of the spacecraft to update
+     * @param name the new name, or {@code null} to keep it
+     * @param type the new type, or {@code null} to keep it
+     * @param origin the new origin, or {@code null} to keep it
+     * @param version the version the spacecraft must have
+     * @return the updated spacecraft, or empty if no spacecraft has that ID and version
+     */
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE spacecraft SET name = COALESCE(:name, name),"
+            + " type = COALESCE(:type, type), origin = COALESCE(:origin, origin), version = version + 1"
+            + " WHERE id = :id AND version = :version)", nativeQuery = true)
+    Optional<Spacecraft> updateIfVersion(@Param("id") Long id, @Param("name") String name, @Param("type") String type,
+                                         @Param("origin") String origin, @Param("version") long version);
+
+    /**
+     * Deletes the spacecrafts with the given IDs in a single statement, without
+     * loading them first as {@code deleteById} does.
+     *
+     * @param ids the IDs of the spacecrafts to delete
+     * @return the number of spacecrafts deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Spacecraft s WHERE s.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the spacecrafts with the given IDs in a single statement and returns
+     * the IDs that existed, read from an H2 data change delta table
+     * ({@code SELECT ... FROM OLD TABLE (DELETE ...)}).
+     *
+     * @param ids the IDs of the spacecrafts to delete
+     * @return the IDs of the spacecrafts deleted
+     */
+    @Query(value = "SELECT id FROM OLD TABLE (DELETE FROM spacecraft WHERE id IN (:ids))", nativeQuery = true)
+    List<Long> deleteAllByIdInReturningIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,55 @@
+package com.w2m.app.domino.repository;
+
+import com.w2m.app.domino.model.Spacecraft;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Reusable predicates over {@link Spacecraft} for {@link SpacecraftRepository}, combined
+ * by the filter endpoint. A {@code null} value matches every spacecraft.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public final class SpacecraftSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private SpacecraftSpecifications() {
+    }
+
+    /**
+     * Matches the spacecrafts of the given type.
+     *
+     * @param type the type, or {@code null} for any
+     * @return the predicate
+     */
+    public static Specification<Spacecraft> hasType(String type) {
+        return (root, query, builder) -> type == null ? null : builder.equal(root.get("type"), type);
+    }
+
+    /**
+     * Matches the spacecrafts of the given origin.
+     *
+     * @param origin the origin, or {@code null} for any
+     * @return the predicate
+     */
+    public static Specification<Spacecraft> hasOrigin(String origin) {
+        return (root, query, builder) -> origin == null ? null : builder.equal(root.get("origin"), origin);
+    }
+
+    /**
+     * Matches the spacecrafts whose name contains the given string, with the same
+     * case-sensitive semantics as the name search.
+     *
+     * @param name the string to search for, or {@code null} for any
+     * @return the predicate
+     */
+    public static Specification<Spacecraft> nameContains(String name) {
+        return (root, query, builder) -> name == null ? null
+                : builder.like(root.get("name"), "%" + escape(name) + "%", ESCAPE);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
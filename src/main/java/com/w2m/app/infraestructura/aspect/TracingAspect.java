@@ -0,0 +1,72 @@
+package com.w2m.app.infraestructura.aspect;
+
+import com.w2m.app.infraestructura.tracing.TraceRecorder;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect that traces the calls to the web controllers and to the application services.
+ * It measures each call and hands the timing and outcome to the {@link TraceRecorder},
+ * which keeps it in a lock-free ring buffer and only logs a sample of the calls and
+ * the unexpected failures.
+ * When tracing is disabled at runtime the advice just proceeds with the call.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final TraceRecorder traceRecorder;
+    private final Map<Method, String> operations = new ConcurrentHashMap<>();
+
+    public TracingAspect(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Pointcut that matches the public methods of the controllers and services.
+     */
+    @Pointcut("execution(public * com.w2m.app.web..*(..)) || execution(public * com.w2m.app.application.service..*(..))")
+    public void tracedMethod() {
+    }
+
+    /**
+     * Around advice that times the call and records its outcome.
+     *
+     * @param joinPoint the traced call
+     * @return the result of the call
+     * @throws Throwable any exception thrown by the call, rethrown unchanged
+     */
+    @Around("tracedMethod()")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!traceRecorder.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            traceRecorder.record(operation(joinPoint), timestamp, System.nanoTime() - start, failure);
+        }
+    }
+
+    private String operation(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return operations.computeIfAbsent(method,
+                key -> key.getDeclaringClass().getSimpleName() + "." + key.getName());
+    }
+}
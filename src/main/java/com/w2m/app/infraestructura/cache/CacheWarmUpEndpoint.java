@@ -0,0 +1,60 @@
+package com.w2m.app.infraestructura.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/cachewarmup}) to list the keys the warm-up
+ * preloads and to run it again, e.g. after clearing the caches through
+ * {@code /actuator/caches}. The instance reports itself as not ready while the
+ * warm-up runs.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+@Endpoint(id = "cachewarmup")
+public class CacheWarmUpEndpoint {
+
+    private final CacheWarmer cacheWarmer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CacheWarmUpEndpoint(CacheWarmer cacheWarmer, ApplicationEventPublisher eventPublisher) {
+        this.cacheWarmer = cacheWarmer;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Returns the keys the warm-up preloads.
+     *
+     * @return the configured keys followed by those of the last snapshot
+     */
+    @ReadOperation
+    public CacheWarmUpSnapshot keys() {
+        return cacheWarmer.keys();
+    }
+
+    /**
+     * Runs the warm-up, refusing traffic until it completes.
+     *
+     * @return the number of keys loaded
+     */
+    @WriteOperation
+    public Map<String, Object> warmUp() {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("loaded", cacheWarmer.warmUp());
+            return result;
+        } finally {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.w2m.app.infraestructura.cache;
+
+import java.util.List;
+
+/**
+ * Keys to preload into the spacecraft caches, hottest first, as persisted at shutdown
+ * by {@link CacheWarmer}.
+ *
+ * @param ids the IDs to load into {@code spacecraftById}
+ * @param names the name queries to load into {@code spacecraftByName}
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public record CacheWarmUpSnapshot(List<Long> ids, List<String> names) {
+
+    public CacheWarmUpSnapshot {
+        ids = ids == null ? List.of() : List.copyOf(ids);
+        names = names == null ? List.of() : List.copyOf(names);
+    }
+}
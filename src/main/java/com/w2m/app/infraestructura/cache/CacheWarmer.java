@@ -0,0 +1,219 @@
+package com.w2m.app.infraestructura.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.w2m.app.application.service.SpacecraftService;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preloads the hottest keys of {@code spacecraftById} and {@code spacecraftByName} so
+ * a fresh instance does not send its first minutes of traffic to the database.
+ * <p>
+ * At shutdown the hottest keys of both caches, as ranked by Caffeine's eviction policy,
+ * are saved to {@code spacecraft.cache.warm-up.snapshot-file}. At startup, after
+ * Liquibase has migrated the database, the keys of the configured lists and of that
+ * snapshot are loaded through {@link SpacecraftService}, so they go through the same
+ * caching as regular requests. Loads run on {@code parallelism} threads and are spaced
+ * to at most {@code rate} per second so the warm-up does not overload the database.
+ * <p>
+ * The warm-up runs as an {@link ApplicationRunner}, before Spring Boot switches the
+ * readiness state to {@code ACCEPTING_TRAFFIC}, so the readiness probe stays down until
+ * it completes or {@code timeout} expires.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class CacheWarmer implements ApplicationRunner {
+
+    private final SpacecraftService spacecraftService;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final CacheWarmUpSnapshot configured;
+    private final int maxKeys;
+    private final int parallelism;
+    private final int rate;
+    private final Duration timeout;
+    private final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+    /**
+     * Constructs a new CacheWarmer.
+     *
+     * @param spacecraftService the service whose cached lookups are preloaded
+     * @param cacheManager the cache manager holding the spacecraft caches
+     * @param objectMapper the mapper used to read and write the snapshot
+     * @param enabled whether caches are warmed at startup and the snapshot saved at shutdown
+     * @param snapshotFile the file where the hottest keys are saved
+     * @param ids IDs always preloaded, before the ones of the snapshot
+     * @param names name queries always preloaded, before the ones of the snapshot
+     * @param maxKeys the maximum number of keys saved and preloaded per cache
+     * @param parallelism the number of threads loading keys
+     * @param rate the maximum number of keys loaded per second
+     * @param timeout the maximum time the warm-up may hold the application back
+     */
+    public CacheWarmer(SpacecraftService spacecraftService, CacheManager cacheManager, ObjectMapper objectMapper,
+                       @Value("${spacecraft.cache.warm-up.enabled:true}") boolean enabled,
+                       @Value("${spacecraft.cache.warm-up.snapshot-file}") Path snapshotFile,
+                       @Value("${spacecraft.cache.warm-up.ids:}") List<Long> ids,
+                       @Value("${spacecraft.cache.warm-up.names:}") List<String> names,
+                       @Value("${spacecraft.cache.warm-up.max-keys:1000}") int maxKeys,
+                       @Value("${spacecraft.cache.warm-up.parallelism:4}") int parallelism,
+                       @Value("${spacecraft.cache.warm-up.rate:500}") int rate,
+                       @Value("${spacecraft.cache.warm-up.timeout:60s}") Duration timeout) {
+        if (maxKeys < 0 || parallelism < 1 || rate < 1) {
+            throw new IllegalArgumentException("Invalid cache warm-up settings: max-keys=" + maxKeys
+                    + ", parallelism=" + parallelism + ", rate=" + rate);
+        }
+        this.spacecraftService = spacecraftService;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.snapshotFile = snapshotFile;
+        this.configured = new CacheWarmUpSnapshot(ids, names);
+        this.maxKeys = maxKeys;
+        this.parallelism = parallelism;
+        this.rate = rate;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Loads the configured keys and the keys of the last snapshot into the caches.
+     *
+     * @return the number of keys loaded
+     */
+    public int warmUp() {
+        CacheWarmUpSnapshot keys = keys();
+        List<Runnable> loads = new ArrayList<>(keys.ids().size() + keys.names().size());
+        keys.ids().forEach(id -> loads.add(() -> spacecraftService.getSpacecraftById(id)));
+        keys.names().forEach(name -> loads.add(() -> spacecraftService.searchSpacecraftByName(name)));
+        if (loads.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        AtomicLong nextSlot = new AtomicLong(start);
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, loads.size()));
+        for (Runnable load : loads) {
+            executor.execute(() -> {
+                LockSupport.parkNanos(nextSlot.getAndAdd(interval) - System.nanoTime());
+                try {
+                    load.run();
+                    loaded.incrementAndGet();
+                } catch (RuntimeException ex) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+                logger.warn("Cache warm-up timed out after {}", timeout);
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Cache warm-up loaded {} of {} keys in {} ms ({} failed)", loaded.get(), loads.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failed.get());
+        return loaded.get();
+    }
+
+    /**
+     * Returns the keys to preload: the configured ones followed by those of the last
+     * snapshot, without duplicates and capped at {@code max-keys} per cache.
+     *
+     * @return the keys to preload
+     */
+    public CacheWarmUpSnapshot keys() {
+        CacheWarmUpSnapshot snapshot = readSnapshot();
+        return new CacheWarmUpSnapshot(merge(configured.ids(), snapshot.ids()),
+                merge(configured.names(), snapshot.names()));
+    }
+
+    /**
+     * Saves the hottest keys of the spacecraft caches to the snapshot file.
+     */
+    @PreDestroy
+    public void saveSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        CacheWarmUpSnapshot snapshot = new CacheWarmUpSnapshot(
+                hottest(SpacecraftCache.BY_ID, Long.class), hottest(SpacecraftCache.BY_NAME, String.class));
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            objectMapper.writeValue(snapshotFile.toFile(), snapshot);
+        } catch (IOException ex) {
+            logger.warn("Could not save the cache warm-up snapshot to {}", snapshotFile, ex);
+        }
+    }
+
+    private CacheWarmUpSnapshot readSnapshot() {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return new CacheWarmUpSnapshot(List.of(), List.of());
+        }
+        try {
+            return objectMapper.readValue(snapshotFile.toFile(), CacheWarmUpSnapshot.class);
+        } catch (IOException ex) {
+            logger.warn("Ignoring unreadable cache warm-up snapshot {}", snapshotFile, ex);
+            return new CacheWarmUpSnapshot(List.of(), List.of());
+        }
+    }
+
+    private <K> List<K> merge(List<K> first, List<K> second) {
+        Set<K> keys = new LinkedHashSet<>(first);
+        keys.addAll(second);
+        return keys.stream().limit(maxKeys).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> List<K> hottest(String cacheName, Class<K> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            return List.of();
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> entries =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache;
+        Collection<Object> keys = entries.policy().eviction()
+                .map(eviction -> eviction.hottest(maxKeys).keySet())
+                .orElseGet(() -> entries.asMap().keySet());
+        return keys.stream().filter(type::isInstance).map(type::cast).limit(maxKeys).toList();
+    }
+}
@@ -0,0 +1,311 @@
+package com.w2m.app.infraestructura.cache;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Second cache tier under {@code spacecraftById} that keeps spacecrafts outside the Java
+ * heap in a compact binary encoding.
+ * <p>
+ * Entries are appended to a direct {@link ByteBuffer} slab as the version followed by
+ * the UTF-8 bytes of the name, type and origin, each preceded by its length. The index is an open-addressing
+ * hash table with linear probing that lives in a second direct buffer, where each slot
+ * holds the spacecraft ID and the position of its entry, so the store adds no objects
+ * to the heap per entry. Rewritten and removed entries leave dead bytes in the slab,
+ * which are reclaimed by compacting it in place when it fills up. A put that still
+ * does not fit, or that would exceed {@code spacecraft.cache.off-heap.max-entries},
+ * is dropped: the entry is then simply loaded from the database again.
+ * <p>
+ * The store is fed with the entries evicted from the on-heap {@code spacecraftById}
+ * cache and read on its misses, which promotes the entry back to the heap; see
+ * {@code CacheConfig}.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class OffHeapSpacecraftStore {
+
+    private static final int SLOT_BYTES = 16;
+    private static final int MAX_ENTRY_BYTES = 0xFFFF;
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int MAX_ENTRIES = 1 << 25;
+    private static final long NULL_VERSION = -1L;
+
+    private final ByteBuffer data;
+    private final ByteBuffer slots;
+    private final int slotMask;
+    private final int maxEntries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int tail;
+    private int size;
+
+    /**
+     * Constructs a new OffHeapSpacecraftStore and allocates its off-heap buffers.
+     *
+     * @param capacityBytes the size of the slab holding the encoded spacecrafts
+     * @param maxEntries the maximum number of spacecrafts held; the index gets twice as many slots
+     */
+    public OffHeapSpacecraftStore(@Value("${spacecraft.cache.off-heap.capacity-bytes}") int capacityBytes,
+                                  @Value("${spacecraft.cache.off-heap.max-entries}") int maxEntries) {
+        if (capacityBytes < 1 || maxEntries < 1 || maxEntries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("Invalid off-heap store size: " + capacityBytes + " bytes, "
+                    + maxEntries + " entries");
+        }
+        int slotCount = Integer.highestOneBit(maxEntries * 2 - 1) << 1;
+        this.data = ByteBuffer.allocateDirect(capacityBytes);
+        this.slots = ByteBuffer.allocateDirect(slotCount * SLOT_BYTES);
+        this.slotMask = slotCount - 1;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns a copy of the stored spacecraft with the given ID.
+     *
+     * @param id the ID of the spacecraft
+     * @return the decoded spacecraft, or {@code null} if it is not stored
+     */
+    public Spacecraft get(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return null;
+            }
+            long location = slots.getLong(slot * SLOT_BYTES + 8);
+            int offset = (int) (location >>> 16);
+            long version = data.getLong(offset);
+            int name = offset + Long.BYTES;
+            return new Spacecraft(id, readString(name), readString(next(name)), readString(next(next(name))),
+                    version == NULL_VERSION ? null : version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a spacecraft, replacing any previous entry with the same ID.
+     *
+     * @param spacecraft the spacecraft to store
+     * @return {@code true} if it was stored, {@code false} if it did not fit
+     */
+    public boolean put(Spacecraft spacecraft) {
+        byte[] entry = encode(spacecraft);
+        if (entry == null) {
+            return false;
+        }
+        long id = spacecraft.getId();
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0 && size >= maxEntries) {
+                return false;
+            }
+            if (tail + entry.length > data.capacity()) {
+                if (slot >= 0) {
+                    delete(slot);
+                    slot = -1;
+                }
+                compact();
+                if (tail + entry.length > data.capacity()) {
+                    return false;
+                }
+            }
+            data.put(tail, entry);
+            long location = (long) tail << 16 | entry.length;
+            tail += entry.length;
+            if (slot < 0) {
+                slot = emptySlot(id);
+                slots.putLong(slot * SLOT_BYTES, id);
+                size++;
+            }
+            slots.putLong(slot * SLOT_BYTES + 8, location);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the spacecraft with the given ID, if stored.
+     *
+     * @param id the ID of the spacecraft
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot >= 0) {
+                delete(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of spacecrafts stored.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the off-heap memory reserved by the store, including its index.
+     *
+     * @return the number of bytes allocated outside the heap
+     */
+    public long reservedBytes() {
+        return (long) data.capacity() + slots.capacity();
+    }
+
+    /**
+     * Returns the bytes of the slab taken by live entries and not yet reclaimed dead ones.
+     *
+     * @return the number of slab bytes in use
+     */
+    public int usedBytes() {
+        lock.readLock().lock();
+        try {
+            return tail;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int find(long id) {
+        for (int slot = hash(id); ; slot = (slot + 1) & slotMask) {
+            if (slots.getLong(slot * SLOT_BYTES + 8) == 0) {
+                return -1;
+            }
+            if (slots.getLong(slot * SLOT_BYTES) == id) {
+                return slot;
+            }
+        }
+    }
+
+    private int emptySlot(long id) {
+        int slot = hash(id);
+        while (slots.getLong(slot * SLOT_BYTES + 8) != 0) {
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot and shifts back the entries of its probe sequence, so lookups
+     * never need tombstones.
+     */
+    private void delete(int slot) {
+        int hole = slot;
+        for (int current = (slot + 1) & slotMask; slots.getLong(current * SLOT_BYTES + 8) != 0;
+             current = (current + 1) & slotMask) {
+            int home = hash(slots.getLong(current * SLOT_BYTES));
+            if (((current - home) & slotMask) >= ((current - hole) & slotMask)) {
+                slots.putLong(hole * SLOT_BYTES, slots.getLong(current * SLOT_BYTES));
+                slots.putLong(hole * SLOT_BYTES + 8, slots.getLong(current * SLOT_BYTES + 8));
+                hole = current;
+            }
+        }
+        slots.putLong(hole * SLOT_BYTES, 0);
+        slots.putLong(hole * SLOT_BYTES + 8, 0);
+        size--;
+    }
+
+    /**
+     * Moves every live entry to the start of the slab, in slab order, reclaiming the
+     * space left by rewritten and removed entries.
+     */
+    private void compact() {
+        long[] live = new long[size];
+        int count = 0;
+        for (int slot = 0; slot <= slotMask; slot++) {
+            long location = slots.getLong(slot * SLOT_BYTES + 8);
+            if (location != 0) {
+                live[count++] = (location >>> 16) << 32 | slot;
+            }
+        }
+        Arrays.sort(live, 0, count);
+        byte[] buffer = new byte[MAX_ENTRY_BYTES];
+        int write = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = (int) live[i];
+            long location = slots.getLong(slot * SLOT_BYTES + 8);
+            int offset = (int) (location >>> 16);
+            int length = (int) (location & 0xFFFF);
+            if (offset != write) {
+                data.get(offset, buffer, 0, length);
+                data.put(write, buffer, 0, length);
+                slots.putLong(slot * SLOT_BYTES + 8, (long) write << 16 | length);
+            }
+            write += length;
+        }
+        tail = write;
+    }
+
+    private int hash(long id) {
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & slotMask;
+    }
+
+    private int next(int offset) {
+        int length = data.getShort(offset) & 0xFFFF;
+        return offset + 2 + (length == NULL_LENGTH ? 0 : length);
+    }
+
+    private String readString(int offset) {
+        int length = data.getShort(offset) & 0xFFFF;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes the version, name, type and origin of a spacecraft, or returns
+     * {@code null} if the entry is too large for the index to address.
+     */
+    static byte[] encode(Spacecraft spacecraft) {
+        byte[][] fields = {bytes(spacecraft.getName()), bytes(spacecraft.getType()), bytes(spacecraft.getOrigin())};
+        int length = Long.BYTES;
+        for (byte[] field : fields) {
+            if (field != null && field.length >= NULL_LENGTH) {
+                return null;
+            }
+            length += 2 + (field == null ? 0 : field.length);
+        }
+        if (length > MAX_ENTRY_BYTES) {
+            return null;
+        }
+        ByteBuffer entry = ByteBuffer.allocate(length);
+        entry.putLong(spacecraft.getVersion() == null ? NULL_VERSION : spacecraft.getVersion());
+        for (byte[] field : fields) {
+            if (field == null) {
+                entry.putShort((short) NULL_LENGTH);
+            } else {
+                entry.putShort((short) field.length).put(field);
+            }
+        }
+        return entry.array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.w2m.app.infraestructura.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent loads of the same cache key into a single call to the loader.
+ * <p>
+ * Spring's {@code @Cacheable} does not synchronize cache misses, so when a popular
+ * entry expires every concurrent caller runs the cached method. Wrapping the load in
+ * {@link #load(String, Object, Supplier)} lets the first caller run the loader while
+ * the others wait for and share its result, or its exception. Every caller that joined
+ * a load in flight increments the {@code spacecraft.cache.loads.coalesced} counter,
+ * tagged with the cache name.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class SingleFlight {
+
+    static final String COALESCED_METRIC = "spacecraft.cache.loads.coalesced";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new SingleFlight.
+     *
+     * @param meterRegistry the registry where the coalesced loads are counted
+     */
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the loader for the given key, unless a load of the same key is already in
+     * flight, in which case it waits for that load and returns its result.
+     *
+     * @param cacheName the name of the cache the key belongs to
+     * @param key the key being loaded
+     * @param loader the function that loads the value on a miss
+     * @param <T> the type of the value
+     * @return the loaded value, possibly shared with concurrent callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String cacheName, Object key, Supplier<T> loader) {
+        FlightKey flightKey = new FlightKey(cacheName, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            coalesced.computeIfAbsent(cacheName, this::counter).increment();
+            return (T) join(existing);
+        }
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private Counter counter(String cacheName) {
+        return Counter.builder(COALESCED_METRIC)
+                .description("Cache loads served by joining a load of the same key already in flight")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    private record FlightKey(String cacheName, Object key) {
+    }
+}
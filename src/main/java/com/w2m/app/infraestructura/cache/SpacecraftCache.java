@@ -0,0 +1,460 @@
+package com.w2m.app.infraestructura.cache;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@code spacecraftById}, {@code spacecraftByName} and {@code spacecraftByIdMissing}
+ * caches coherent with the writes performed by the service layer.
+ * <p>
+ * Writes go through to {@code spacecraftById}, and only the name searches affected by
+ * the change are patched in {@code spacecraftByName}: a cached result list is rewritten
+ * when it already lists the spacecraft (it matched the old name) or when the new name
+ * contains the search term. Every other entry keeps its cached value, so long TTLs can
+ * be used without serving stale results. IDs recorded as missing are forgotten as soon
+ * as a spacecraft with that ID is written, and the off-heap copy of a written spacecraft
+ * is dropped so it cannot shadow the new value once the heap entry is evicted.
+ * <p>
+ * The service calls the write methods once the transaction has committed, and loads
+ * that read the database or the search index before a write may finish after it.
+ * Every write therefore bumps a generation, per ID for {@code spacecraftById} and
+ * {@code spacecraftByIdMissing} and a single one for {@code spacecraftByName}, under
+ * the lock Caffeine holds on the written key. A load takes the generation before it
+ * reads, and its result is only cached if the generation has not moved when it is
+ * stored, under the same lock. A loaded spacecraft older than the cached one is never
+ * stored either, for reads served by a lagging replica.
+ * <p>
+ * The after-commit writes of two transactions on the same spacecraft may also run in
+ * the opposite order to their commits. A write therefore keeps the cached spacecraft,
+ * on either tier, when it has a higher version, and a deletion leaves a tombstone in
+ * {@code spacecraftByIdMissing} that stops any later write or load of the ID from
+ * caching it again until the entry expires. IDs are never reused, so the tombstone
+ * only has to outlive the writes still in flight.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class SpacecraftCache {
+
+    public static final String BY_ID = "spacecraftById";
+    public static final String BY_NAME = "spacecraftByName";
+    public static final String BY_ID_MISSING = "spacecraftByIdMissing";
+
+    private static final Comparator<Spacecraft> BY_ID_ORDER = Comparator.comparing(Spacecraft::getId);
+    private static final int GENERATION_STRIPES = 1024;
+    private static final Boolean NOT_FOUND = Boolean.TRUE;
+    private static final String DELETED = "DELETED";
+
+    private final CacheManager cacheManager;
+    private final OffHeapSpacecraftStore offHeapStore;
+    private final AtomicLongArray idGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong nameGeneration = new AtomicLong();
+
+    /**
+     * Constructs a new SpacecraftCache.
+     *
+     * @param cacheManager the cache manager holding the spacecraft caches
+     * @param offHeapStore the off-heap tier of {@code spacecraftById}
+     */
+    public SpacecraftCache(CacheManager cacheManager, OffHeapSpacecraftStore offHeapStore) {
+        this.cacheManager = cacheManager;
+        this.offHeapStore = offHeapStore;
+    }
+
+    /**
+     * Writes a created or updated spacecraft into {@code spacecraftById} and patches
+     * the name searches it used to match or matches now.
+     *
+     * @param spacecraft the persisted spacecraft
+     */
+    public void put(Spacecraft spacecraft) {
+        putAll(List.of(spacecraft));
+    }
+
+    /**
+     * Writes a batch of created or updated spacecrafts, patching the name searches
+     * in a single pass over {@code spacecraftByName}. A spacecraft that is deleted or
+     * older than the cached one is skipped.
+     *
+     * @param spacecrafts the persisted spacecrafts
+     */
+    public void putAll(Collection<Spacecraft> spacecrafts) {
+        Cache cache = cache(BY_ID);
+        Cache missing = cache(BY_ID_MISSING);
+        Map<Long, Spacecraft> changes = new HashMap<>();
+        ConcurrentMap<Object, Object> missingEntries = entries(missing);
+        for (Spacecraft spacecraft : spacecrafts) {
+            if (!write(cache, spacecraft.getId(), spacecraft)) {
+                continue;
+            }
+            if (missingEntries == null) {
+                if (!isDeleted(spacecraft.getId())) {
+                    missing.evict(spacecraft.getId());
+                }
+            } else {
+                missingEntries.remove(spacecraft.getId(), NOT_FOUND);
+            }
+            offHeapStore.remove(spacecraft.getId());
+            changes.put(spacecraft.getId(), spacecraft);
+        }
+        patchNameSearches(changes);
+    }
+
+    /**
+     * Evicts a deleted spacecraft from both tiers of {@code spacecraftById} and removes
+     * it from every cached name search that lists it.
+     *
+     * @param id the ID of the deleted spacecraft
+     */
+    public void evict(Long id) {
+        evictAll(List.of(id));
+    }
+
+    /**
+     * Evicts a batch of deleted spacecrafts, removing them from the name searches in
+     * a single pass over {@code spacecraftByName}, and leaves a tombstone for each so
+     * a write applied after the deletion cannot cache them again.
+     *
+     * @param ids the IDs of the deleted spacecrafts
+     */
+    public void evictAll(Collection<Long> ids) {
+        Cache cache = cache(BY_ID);
+        Cache missing = cache(BY_ID_MISSING);
+        Map<Long, Spacecraft> changes = new HashMap<>();
+        for (Long id : ids) {
+            // Marked before the entry is removed, so a write of the ID either runs before
+            // the removal or sees the tombstone.
+            missing.put(id, DELETED);
+            // Dropped before the generation moves, so a promotion that read the copy
+            // earlier is refused.
+            offHeapStore.remove(id);
+            write(cache, id, null);
+            changes.put(id, null);
+        }
+        patchNameSearches(changes);
+    }
+
+    /**
+     * Returns the spacecraft cached under the given ID, promoting it from the off-heap
+     * tier if only that tier holds it.
+     *
+     * @param id the ID to look up
+     * @return the cached spacecraft, or {@code null} if it is not cached
+     */
+    public Spacecraft get(Long id) {
+        return getAllPresent(List.of(id)).get(id);
+    }
+
+    /**
+     * Returns the cached result of a name search.
+     *
+     * @param name the searched name
+     * @return the cached spacecrafts, or {@code null} if the search is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public List<Spacecraft> getSearch(String name) {
+        Cache.ValueWrapper value = cache(BY_NAME).get(name);
+        return value == null ? null : (List<Spacecraft>) value.get();
+    }
+
+    /**
+     * Returns the generation of an ID, to be taken before loading it and passed back
+     * when caching what was loaded.
+     *
+     * @param id the ID about to be loaded
+     * @return the current generation of the ID
+     */
+    public long idGeneration(Long id) {
+        return idGenerations.get(stripe(id));
+    }
+
+    /**
+     * Returns the generation of the name searches, to be taken before running a search
+     * and passed back when caching its result.
+     *
+     * @return the current generation of the name searches
+     */
+    public long nameGeneration() {
+        return nameGeneration.get();
+    }
+
+    /**
+     * Returns the spacecrafts of {@code spacecraftById} for the given IDs in one pass
+     * over the cache. IDs missing from the heap are looked up in the off-heap tier and
+     * promoted to the heap when found there.
+     *
+     * @param ids the IDs to look up
+     * @return the cached spacecrafts by ID; IDs not cached are absent
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, Spacecraft> getAllPresent(Collection<Long> ids) {
+        Cache cache = cache(BY_ID);
+        Map<Long, Spacecraft> found = new HashMap<>();
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).getAllPresent(ids)
+                    .forEach((id, value) -> {
+                        if (value instanceof Spacecraft spacecraft) {
+                            found.put((Long) id, spacecraft);
+                        }
+                    });
+        } else {
+            for (Long id : ids) {
+                Cache.ValueWrapper value = cache.get(id);
+                if (value != null && value.get() instanceof Spacecraft spacecraft) {
+                    found.put(id, spacecraft);
+                }
+            }
+        }
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                Spacecraft spacecraft = promote(cache, id);
+                if (spacecraft != null) {
+                    found.put(id, spacecraft);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Moves the off-heap copy of an ID to the heap. The generation is taken before the
+     * off-heap read and the copy is only promoted if it has not moved and the heap has
+     * no entry yet, so a write or delete racing with the read is never undone.
+     *
+     * @return the spacecraft now cached on the heap, or {@code null} if there is none
+     */
+    private Spacecraft promote(Cache cache, Long id) {
+        long generation = idGeneration(id);
+        Spacecraft copy = offHeapStore.get(id);
+        if (copy == null) {
+            return null;
+        }
+        ConcurrentMap<Object, Object> entries = entries(cache);
+        if (entries == null) {
+            if (idGeneration(id) != generation || isDeleted(id)) {
+                return null;
+            }
+            Cache.ValueWrapper current = cache.putIfAbsent(id, copy);
+            Object cached = current == null ? copy : current.get();
+            return cached instanceof Spacecraft spacecraft ? spacecraft : null;
+        }
+        Object cached = entries.compute(id, (key, current) ->
+                current != null || idGeneration(id) != generation || isDeleted(id) ? current : copy);
+        return cached instanceof Spacecraft spacecraft ? spacecraft : null;
+    }
+
+    /**
+     * Caches a spacecraft just read from the database in {@code spacecraftById}, unless
+     * it was written since the load started or the cached copy is newer. Unlike
+     * {@link #put(Spacecraft)}, cached name searches are left untouched because the
+     * spacecraft did not change.
+     *
+     * @param spacecraft the spacecraft loaded from the database
+     * @param generation the generation of its ID taken before the load
+     */
+    public void putLoaded(Spacecraft spacecraft, long generation) {
+        putLoaded(List.of(spacecraft), Map.of(spacecraft.getId(), generation));
+    }
+
+    /**
+     * Caches spacecrafts just read from the database in {@code spacecraftById}, skipping
+     * those written since the load started, deleted, or whose cached copy is newer.
+     *
+     * @param spacecrafts the spacecrafts loaded from the database
+     * @param generations the generation of each ID taken before the load
+     */
+    public void putLoaded(Collection<Spacecraft> spacecrafts, Map<Long, Long> generations) {
+        Cache cache = cache(BY_ID);
+        ConcurrentMap<Object, Object> entries = entries(cache);
+        for (Spacecraft spacecraft : spacecrafts) {
+            long generation = generations.get(spacecraft.getId());
+            if (entries == null) {
+                if (idGeneration(spacecraft.getId()) == generation && !isDeleted(spacecraft.getId())) {
+                    cache.put(spacecraft.getId(), spacecraft);
+                }
+                continue;
+            }
+            entries.compute(spacecraft.getId(), (id, current) -> idGeneration(spacecraft.getId()) != generation
+                    || isNewer(current, spacecraft) || isDeleted(spacecraft.getId()) ? current : spacecraft);
+        }
+    }
+
+    /**
+     * Records that no spacecraft exists with the given ID, so further lookups can be
+     * answered without reaching the database until the entry expires. Nothing is
+     * recorded if the ID was written since the lookup started, and the tombstone of a
+     * deleted ID is kept.
+     *
+     * @param id the ID that was not found
+     * @param generation the generation of the ID taken before the lookup
+     */
+    public void markMissing(Long id, long generation) {
+        Cache missing = cache(BY_ID_MISSING);
+        ConcurrentMap<Object, Object> entries = entries(missing);
+        if (entries == null) {
+            if (idGeneration(id) == generation && !isDeleted(id)) {
+                missing.put(id, NOT_FOUND);
+            }
+            return;
+        }
+        entries.compute(id, (key, current) ->
+                idGeneration(id) == generation && !DELETED.equals(current) ? NOT_FOUND : current);
+    }
+
+    /**
+     * Tells whether the given ID was recently looked up and not found.
+     *
+     * @param id the ID to check
+     * @return {@code true} if the ID is recorded as missing
+     */
+    public boolean isMissing(Long id) {
+        return cache(BY_ID_MISSING).get(id) != null;
+    }
+
+    /**
+     * Caches the result of a name search, unless a spacecraft was written since the
+     * search started.
+     *
+     * @param name the searched name
+     * @param result the spacecrafts found
+     * @param generation the generation of the name searches taken before the search
+     */
+    public void putSearch(String name, List<Spacecraft> result, long generation) {
+        Cache cache = cache(BY_NAME);
+        ConcurrentMap<Object, Object> entries = entries(cache);
+        if (entries == null) {
+            if (nameGeneration.get() == generation) {
+                cache.put(name, result);
+            }
+            return;
+        }
+        entries.compute(name, (key, current) -> nameGeneration.get() == generation ? result : current);
+    }
+
+    /**
+     * Writes or, with a {@code null} spacecraft, removes an entry of {@code spacecraftById},
+     * bumping the generation of its ID under the lock of the entry so a load of the
+     * same ID either stores its result before this write or sees the new generation.
+     * A spacecraft is not written over a newer copy held by either tier, nor after its
+     * deletion.
+     *
+     * @return whether the given spacecraft is the one now cached
+     */
+    private boolean write(Cache cache, Long id, Spacecraft spacecraft) {
+        ConcurrentMap<Object, Object> entries = entries(cache);
+        if (entries == null) {
+            idGenerations.incrementAndGet(stripe(id));
+            if (spacecraft == null) {
+                cache.evict(id);
+                return true;
+            }
+            Cache.ValueWrapper current = cache.get(id);
+            if (isDeleted(id) || isNewer(current == null ? null : current.get(), spacecraft)) {
+                return false;
+            }
+            cache.put(id, spacecraft);
+            return true;
+        }
+        Object written = entries.compute(id, (key, current) -> {
+            idGenerations.incrementAndGet(stripe(id));
+            if (spacecraft == null) {
+                return null;
+            }
+            if (isDeleted(id)) {
+                return current;
+            }
+            Object newest = current != null ? current : offHeapStore.get(id);
+            return isNewer(newest, spacecraft) ? newest : spacecraft;
+        });
+        return written == spacecraft;
+    }
+
+    private boolean isDeleted(Long id) {
+        Cache missing = cache(BY_ID_MISSING);
+        ConcurrentMap<Object, Object> entries = entries(missing);
+        if (entries != null) {
+            // Read through the map view, so the check does not count as a cache lookup.
+            return DELETED.equals(entries.get(id));
+        }
+        Cache.ValueWrapper value = missing.get(id);
+        return value != null && DELETED.equals(value.get());
+    }
+
+    private static boolean isNewer(Object current, Spacecraft loaded) {
+        return current instanceof Spacecraft cached && cached.getVersion() != null && loaded.getVersion() != null
+                && cached.getVersion() > loaded.getVersion();
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Object, Object> entries(Cache cache) {
+        return cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache
+                ? ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap()
+                : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void patchNameSearches(Map<Long, Spacecraft> changes) {
+        // Bumped before the entries are patched: a search that stored its result before
+        // the bump is patched below, and one storing it after sees the new generation.
+        nameGeneration.incrementAndGet();
+        Cache cache = cache(BY_NAME);
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            cache.clear();
+            return;
+        }
+        Map<Object, Object> entries = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap();
+        for (Object key : entries.keySet()) {
+            entries.computeIfPresent(key, (name, value) -> patch((String) name, (List<Spacecraft>) value, changes));
+        }
+    }
+
+    /**
+     * Rewrites a cached search result for a set of changes, where a {@code null}
+     * change stands for a deleted spacecraft. The original list is returned when
+     * none of the changes affects it.
+     */
+    private static List<Spacecraft> patch(String name, List<Spacecraft> result, Map<Long, Spacecraft> changes) {
+        List<Spacecraft> added = new ArrayList<>();
+        for (Spacecraft current : changes.values()) {
+            if (current != null && current.getName() != null && current.getName().contains(name)) {
+                added.add(current);
+            }
+        }
+        boolean listed = result.stream().anyMatch(ship -> changes.containsKey(ship.getId()));
+        if (!listed && added.isEmpty()) {
+            return result;
+        }
+        List<Spacecraft> patched = new ArrayList<>(result.size() + added.size());
+        for (Spacecraft ship : result) {
+            if (!changes.containsKey(ship.getId())) {
+                patched.add(ship);
+            }
+        }
+        if (!added.isEmpty()) {
+            patched.addAll(added);
+            patched.sort(BY_ID_ORDER);
+        }
+        return patched;
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), () -> "Cache not configured: " + name);
+    }
+}
@@ -0,0 +1,137 @@
+package com.w2m.app.infraestructura.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.infraestructura.cache.OffHeapSpacecraftStore;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import java.util.Collection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the per-cache policies of the spacecraft caches.
+ * <p>
+ * {@code spring.cache.caffeine.spec} only applies one policy to every cache, so each
+ * spacecraft cache is registered here with its own Caffeine spec:
+ * <ul>
+ *     <li>{@code spacecraftById} is sized by weight and refreshed in the background
+ *     once an entry is older than {@code refreshAfterWrite}: the next read still gets
+ *     the current value while it is reloaded from the database, so hot entries never
+ *     expire in the request path. Entries it evicts for size move to the
+ *     {@link OffHeapSpacecraftStore}, and its misses are looked up there first, which
+ *     promotes the entry back to the heap. Expired entries are dropped: the off-heap
+ *     tier has no expiry of its own, so demoting them would bring them back.</li>
+ *     <li>{@code spacecraftByName} is sized by weight, counting the spacecrafts listed
+ *     in each result.</li>
+ *     <li>{@code spacecraftByIdMissing} remembers, for a short time, IDs that do not
+ *     exist, so probes for missing IDs stop reaching the database.</li>
+ * </ul>
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Configuration
+public class CacheConfig {
+
+    private static final int ENTRY_WEIGHT = 64;
+
+    /**
+     * Registers the spacecraft caches with their own policies in the Caffeine cache manager.
+     *
+     * @param spacecraftRepository the repository used to refresh {@code spacecraftById} entries,
+     *                             resolved lazily because the entity manager factory depends on the cache manager
+     * @param offHeapStore the second tier of {@code spacecraftById}
+     * @param byIdSpec the Caffeine spec of {@code spacecraftById}
+     * @param byNameSpec the Caffeine spec of {@code spacecraftByName}
+     * @param byIdMissingSpec the Caffeine spec of {@code spacecraftByIdMissing}
+     * @return the customizer applied to the auto-configured cache manager
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> spacecraftCacheCustomizer(
+            ObjectProvider<SpacecraftRepository> spacecraftRepository,
+            OffHeapSpacecraftStore offHeapStore,
+            @Value("${spacecraft.cache.by-id.spec}") String byIdSpec,
+            @Value("${spacecraft.cache.by-name.spec}") String byNameSpec,
+            @Value("${spacecraft.cache.by-id-missing.spec}") String byIdMissingSpec) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(SpacecraftCache.BY_ID, Caffeine.from(byIdSpec)
+                    .weigher(CacheConfig::weigh)
+                    .evictionListener((key, value, cause) -> demote(offHeapStore, value, cause))
+                    .build(loader(spacecraftRepository, offHeapStore)));
+            cacheManager.registerCustomCache(SpacecraftCache.BY_NAME, Caffeine.from(byNameSpec)
+                    .weigher(CacheConfig::weigh)
+                    .build());
+            cacheManager.registerCustomCache(SpacecraftCache.BY_ID_MISSING, Caffeine.from(byIdMissingSpec).build());
+        };
+    }
+
+    /**
+     * Returns the loader of {@code spacecraftById}. A miss is loaded from the off-heap
+     * tier when it holds the entry; otherwise it falls through to
+     * {@code SpacecraftService}, where concurrent misses are coalesced and missing IDs
+     * are recorded. Refreshes reload the entry from the database, and a spacecraft
+     * deleted in the meantime is dropped from the cache. The reload runs in a read-only
+     * transaction, so it may be answered by a lagging replica: a version older than the
+     * cached one is discarded and the cached spacecraft kept.
+     */
+    static CacheLoader<Object, Object> loader(ObjectProvider<SpacecraftRepository> spacecraftRepository,
+                                              OffHeapSpacecraftStore offHeapStore) {
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                return offHeapStore.get((Long) key);
+            }
+
+            @Override
+            public Object reload(Object key, Object oldValue) {
+                Spacecraft reloaded = spacecraftRepository.getObject().findById((Long) key).orElse(null);
+                return reloaded != null && oldValue instanceof Spacecraft cached && isOlder(reloaded, cached)
+                        ? cached : reloaded;
+            }
+        };
+    }
+
+    /**
+     * Moves a spacecraft evicted from the heap by size to the off-heap tier.
+     */
+    static void demote(OffHeapSpacecraftStore offHeapStore, Object value, RemovalCause cause) {
+        if (cause == RemovalCause.SIZE && value instanceof Spacecraft spacecraft) {
+            offHeapStore.put(spacecraft);
+        }
+    }
+
+    /**
+     * Estimates the weight of a cached value, roughly in bytes: a fixed overhead per
+     * entry plus the characters of each spacecraft it holds.
+     */
+    static int weigh(Object key, Object value) {
+        if (value instanceof Spacecraft spacecraft) {
+            return ENTRY_WEIGHT + 2 * (length(spacecraft.getName()) + length(spacecraft.getType())
+                    + length(spacecraft.getOrigin()));
+        }
+        if (value instanceof Collection<?> values) {
+            int weight = ENTRY_WEIGHT;
+            for (Object element : values) {
+                weight += weigh(key, element);
+            }
+            return weight;
+        }
+        return ENTRY_WEIGHT;
+    }
+
+    private static boolean isOlder(Spacecraft reloaded, Spacecraft cached) {
+        return reloaded.getVersion() != null && cached.getVersion() != null
+                && reloaded.getVersion() < cached.getVersion();
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
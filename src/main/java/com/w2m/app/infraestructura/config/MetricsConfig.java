@@ -0,0 +1,30 @@
+package com.w2m.app.infraestructura.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the application metrics exposed through Actuator.
+ * Cache statistics, Hibernate statistics and HTTP endpoint timings are bound by
+ * Spring Boot; this class enables the {@code @Timed} annotation on the services.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Registers the aspect that records a timer for every method annotated, directly
+     * or through its class, with {@link io.micrometer.core.annotation.Timed}.
+     *
+     * @param meterRegistry the registry where the timers are recorded
+     * @return the timed aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.w2m.app.infraestructura.config;
+
+import com.w2m.app.infraestructura.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuration class for read-replica routing, enabled by listing the JDBC URLs of the
+ * replicas in {@code spacecraft.datasource.replica-urls}.
+ * <p>
+ * It replaces the auto-configured data source with a {@link ReplicaRoutingDataSource}
+ * over one Hikari pool for the primary, configured from {@code spring.datasource.*},
+ * and one pool per replica with the same settings. Read-only transactions, such as the
+ * repository lookups behind {@code getAllSpacecraft}, {@code getSpacecraftById} and
+ * {@code searchSpacecraftByName}, are served by the replicas; everything else,
+ * including Liquibase, goes to the primary.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "spacecraft.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+
+    /**
+     * Creates the routing data source and starts checking the lag of the replicas.
+     *
+     * @param properties the {@code spring.datasource.*} properties of the primary
+     * @param environment the environment holding the {@code spring.datasource.hikari.*} pool settings
+     * @param meterRegistry the registry where the pool metrics are recorded
+     * @param replicaUrls the JDBC URLs of the replicas
+     * @param lagQuery the query returning the replication lag of a replica in seconds
+     * @param maxLag the maximum lag of a replica still serving reads
+     * @param checkInterval the time between two lag checks
+     * @return the routing data source
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource(
+            DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+            @Value("${spacecraft.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${spacecraft.datasource.replica-lag-query:SELECT 0}") String lagQuery,
+            @Value("${spacecraft.datasource.replica-max-lag:5s}") Duration maxLag,
+            @Value("${spacecraft.datasource.replica-check-interval:5s}") Duration checkInterval) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(primaryPoolName(primary));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig replica = new HikariConfig();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(replicaUrls.get(i));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), new HikariDataSource(replica));
+        }
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLag);
+        Gauge.builder("spacecraft.datasource.replicas.available", routingDataSource,
+                        ReplicaRoutingDataSource::availableReplicas)
+                .description("Read replicas currently serving reads")
+                .register(meterRegistry);
+        routingDataSource.start(checkInterval);
+        return routingDataSource;
+    }
+
+    /**
+     * Exposes the routing data source behind a lazy proxy, so the target is chosen at the
+     * first statement of a transaction, once its read-only flag is known.
+     *
+     * @param routingDataSource the routing data source
+     * @return the application data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static String primaryPoolName(HikariDataSource primary) {
+        return primary.getPoolName() == null ? "primary" : primary.getPoolName();
+    }
+}
@@ -0,0 +1,86 @@
+package com.w2m.app.infraestructura.config;
+
+import com.w2m.app.web.SpacecraftProtobufHttpMessageConverter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for the representations the API responds with.
+ * <p>
+ * Besides JSON, clients may ask for Smile ({@code application/x-jackson-smile}), CBOR
+ * ({@code application/cbor}) or, for spacecrafts and pages of spacecrafts, Protocol
+ * Buffers ({@code application/x-protobuf}). The Smile and CBOR converters take the
+ * place of Spring's defaults, but are built from the Spring Boot configured
+ * {@link Jackson2ObjectMapperBuilder}, so they write the same fields as the JSON one.
+ * The Protobuf converter is added last: registered as a bean it would be placed first,
+ * and answer every request that accepts any media type. Responses are compressed by
+ * the server, see {@code server.compression.*}.
+ * <p>
+ * As the body of the spacecraft API depends on the {@code Accept} and
+ * {@code Accept-Encoding} headers, its responses, 304s included, say so in
+ * {@code Vary}, so shared caches keep one copy per format and encoding.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    static final String NEGOTIATED_PATHS = "/api/spacecraft/**";
+
+    /**
+     * Writes and reads Smile with the application's Jackson settings.
+     *
+     * @param builder the Spring Boot configured object mapper builder
+     * @return the Smile message converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.smile().build());
+    }
+
+    /**
+     * Writes and reads CBOR with the application's Jackson settings.
+     *
+     * @param builder the Spring Boot configured object mapper builder
+     * @return the CBOR message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.cbor().build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new SpacecraftProtobufHttpMessageConverter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryInterceptor()).addPathPatterns(NEGOTIATED_PATHS);
+    }
+
+    /**
+     * Adds {@code Vary: Accept, Accept-Encoding} before the handler runs, so it is
+     * also sent on the responses that end early, like a 304.
+     */
+    static class VaryInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.w2m.app.infraestructura.datasource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source that sends read-only transactions to a pool of read replicas and every
+ * other statement to the primary.
+ * <p>
+ * Replicas are picked round-robin among the available ones. A replica stops being
+ * available when its lag, as reported by the lag query run on every
+ * {@link #checkReplicas() check}, exceeds the maximum lag, when the query fails, or when
+ * it refuses a connection; in the latter case the connection is taken from the primary
+ * instead. When no replica is available, reads go to the primary too.
+ * <p>
+ * The read-only flag of a transaction is only known once the transaction has started,
+ * after the transaction manager asked for its connection, so this data source must be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which defers the choice until the first statement.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private ScheduledExecutorService monitor;
+
+    /**
+     * Constructs a new ReplicaRoutingDataSource.
+     *
+     * @param primary the data source of the primary, which receives every write
+     * @param replicas the data sources of the replicas, by name
+     * @param lagQuery the query returning the replication lag of a replica in seconds
+     * @param maxLag the maximum lag of a replica still serving reads
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery,
+                                    Duration maxLag) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (replica.available) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource target = getResolvedDataSources().get(key);
+        try {
+            return target.getConnection();
+        } catch (SQLException ex) {
+            if (PRIMARY.equals(key)) {
+                throw ex;
+            }
+            logger.warn("Replica {} refused a connection, reading from the primary until its next check", key, ex);
+            replicas.stream().filter(replica -> replica.name.equals(key)).forEach(replica -> replica.available = false);
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Runs the lag query on every replica and updates whether it may serve reads.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(lagQuery)) {
+                double lagSeconds = result.next() ? result.getDouble(1) : 0;
+                available = lagSeconds <= maxLag.toMillis() / 1000.0;
+                if (!available && replica.available) {
+                    logger.warn("Replica {} is {} s behind the primary, reading from other nodes", replica.name, lagSeconds);
+                }
+            } catch (SQLException ex) {
+                available = false;
+                if (replica.available) {
+                    logger.warn("Replica {} failed its lag check, reading from other nodes", replica.name, ex);
+                }
+            }
+            replica.available = available;
+        }
+    }
+
+    /**
+     * Returns the number of replicas currently serving reads.
+     *
+     * @return the number of available replicas
+     */
+    public int availableReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.available).count();
+    }
+
+    /**
+     * Checks the replicas now and then every {@code interval} on a background thread.
+     *
+     * @param interval the time between two checks
+     */
+    public synchronized void start(Duration interval) {
+        if (monitor == null) {
+            monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            monitor.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the replica checks and closes the primary and replica pools.
+     */
+    @Override
+    public synchronized void close() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        closePool(primary);
+        replicas.forEach(replica -> closePool(replica.dataSource));
+    }
+
+    private void closePool(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                logger.warn("Could not close data source {}", dataSource, ex);
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
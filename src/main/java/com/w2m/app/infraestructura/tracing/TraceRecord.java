@@ -0,0 +1,26 @@
+package com.w2m.app.infraestructura.tracing;
+
+/**
+ * Timing and outcome of a single traced call.
+ *
+ * @param sequence the position of the record in the trace buffer
+ * @param operation the traced operation, as {@code Class.method}
+ * @param timestamp the epoch millis at which the call started
+ * @param durationNanos the time spent in the call, in nanoseconds
+ * @param outcome {@code OK}, or the simple name of the exception thrown by the call
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public record TraceRecord(long sequence, String operation, long timestamp, long durationNanos, String outcome) {
+
+    public static final String OK = "OK";
+
+    /**
+     * Tells whether the traced call completed without throwing.
+     *
+     * @return {@code true} if the outcome is {@link #OK}
+     */
+    public boolean successful() {
+        return OK.equals(outcome);
+    }
+}
@@ -0,0 +1,121 @@
+package com.w2m.app.infraestructura.tracing;
+
+import com.w2m.app.application.exception.ChangeSequenceExpiredException;
+import com.w2m.app.application.exception.NegativeIdException;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entry point of the hot-path tracing. Every traced call is stored in a
+ * {@link TraceRingBuffer}; only one call out of {@code sampleRate} is emitted to the
+ * {@code com.w2m.app.tracing} logger, plus every call that failed unexpectedly, at
+ * WARN. Failures the API answers with a 4xx, like a missing spacecraft or a version
+ * conflict, are part of normal traffic and are sampled like successful calls, so a
+ * client probing missing IDs does not flood the log. Tracing can be switched
+ * on and off, and the sample rate changed, at runtime through the {@code tracing}
+ * actuator endpoint.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class TraceRecorder {
+
+    private final Logger logger = LoggerFactory.getLogger("com.w2m.app.tracing");
+    private final TraceRingBuffer buffer;
+    private volatile boolean enabled;
+    private volatile int sampleRate;
+
+    /**
+     * Constructs a new TraceRecorder.
+     *
+     * @param enabled whether calls are traced at startup
+     * @param sampleRate one traced call out of this many is logged
+     * @param bufferSize the number of recent records kept in memory
+     */
+    public TraceRecorder(@Value("${spacecraft.tracing.enabled:true}") boolean enabled,
+                         @Value("${spacecraft.tracing.sample-rate:100}") int sampleRate,
+                         @Value("${spacecraft.tracing.buffer-size:1024}") int bufferSize) {
+        this.buffer = new TraceRingBuffer(bufferSize);
+        this.enabled = enabled;
+        setSampleRate(sampleRate);
+    }
+
+    /**
+     * Records a traced call and emits it if it is sampled or failed unexpectedly.
+     *
+     * @param operation the traced operation
+     * @param timestamp the epoch millis at which the call started
+     * @param durationNanos the time spent in the call, in nanoseconds
+     * @param failure the exception thrown by the call, or {@code null} if it completed
+     */
+    public void record(String operation, long timestamp, long durationNanos, Throwable failure) {
+        String outcome = failure == null ? TraceRecord.OK : failure.getClass().getSimpleName();
+        TraceRecord traceRecord = buffer.record(operation, timestamp, durationNanos, outcome);
+        if (failure != null && unexpected(failure)) {
+            logger.warn("trace seq={} operation={} durationMicros={} outcome={}",
+                    traceRecord.sequence(), operation, durationNanos / 1000, outcome);
+        } else if (logger.isInfoEnabled() && (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0)) {
+            logger.info("trace seq={} operation={} durationMicros={} outcome={} sampleRate={}",
+                    traceRecord.sequence(), operation, durationNanos / 1000, outcome, sampleRate);
+        }
+    }
+
+    /**
+     * Tells whether a failure is unexpected, that is, not one of the exceptions the
+     * API answers with a 4xx.
+     */
+    static boolean unexpected(Throwable failure) {
+        return !(failure instanceof EntityNotFoundException
+                || failure instanceof EmptyResultDataAccessException
+                || failure instanceof NegativeIdException
+                || failure instanceof IllegalArgumentException
+                || failure instanceof OptimisticLockingFailureException
+                || failure instanceof ChangeSequenceExpiredException);
+    }
+
+    /**
+     * Returns the records currently held in memory, oldest first.
+     *
+     * @return the recent records
+     */
+    public List<TraceRecord> recent() {
+        return buffer.snapshot();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Changes how many traced calls are recorded for each one that is logged.
+     *
+     * @param sampleRate one traced call out of this many is logged
+     * @throws IllegalArgumentException if the sample rate is not positive
+     */
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Trace sample rate must be positive: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public int getBufferSize() {
+        return buffer.capacity();
+    }
+}
@@ -0,0 +1,85 @@
+package com.w2m.app.infraestructura.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring buffer keeping the most recent trace records.
+ * Writers claim a slot with a single atomic increment and overwrite whatever
+ * older record the slot held, so recording never blocks nor allocates beyond the
+ * record itself. A writer delayed long enough for the buffer to wrap around drops
+ * its record rather than overwrite a newer one.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public class TraceRingBuffer {
+
+    private final AtomicReferenceArray<TraceRecord> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int mask;
+
+    /**
+     * Constructs a new TraceRingBuffer.
+     *
+     * @param capacity the number of records kept, rounded up to a power of two
+     */
+    public TraceRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Trace buffer capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records a traced call, overwriting the oldest record once the buffer is full.
+     *
+     * @param operation the traced operation
+     * @param timestamp the epoch millis at which the call started
+     * @param durationNanos the time spent in the call, in nanoseconds
+     * @param outcome the outcome of the call
+     * @return the stored record
+     */
+    public TraceRecord record(String operation, long timestamp, long durationNanos, String outcome) {
+        long next = sequence.getAndIncrement();
+        TraceRecord traceRecord = new TraceRecord(next, operation, timestamp, durationNanos, outcome);
+        int slot = (int) (next & mask);
+        TraceRecord current = slots.get(slot);
+        while ((current == null || current.sequence() < next) && !slots.compareAndSet(slot, current, traceRecord)) {
+            current = slots.get(slot);
+        }
+        return traceRecord;
+    }
+
+    /**
+     * Returns the records currently held, oldest first. Records written while the
+     * snapshot is taken may or may not be included.
+     *
+     * @return the recent records
+     */
+    public List<TraceRecord> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<TraceRecord> records = new ArrayList<>((int) (end - start));
+        for (long position = start; position < end; position++) {
+            TraceRecord traceRecord = slots.get((int) (position & mask));
+            if (traceRecord != null && traceRecord.sequence() == position) {
+                records.add(traceRecord);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Returns the number of records kept by this buffer.
+     *
+     * @return the capacity of the buffer
+     */
+    public int capacity() {
+        return slots.length();
+    }
+}
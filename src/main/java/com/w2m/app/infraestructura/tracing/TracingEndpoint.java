@@ -0,0 +1,62 @@
+package com.w2m.app.infraestructura.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/tracing}) to inspect the recent trace records
+ * and to toggle tracing or change its sample rate without restarting.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+@Endpoint(id = "tracing")
+public class TracingEndpoint {
+
+    private final TraceRecorder traceRecorder;
+
+    public TracingEndpoint(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Returns the tracing settings and the records currently held in memory.
+     *
+     * @return the tracing status
+     */
+    @ReadOperation
+    public Map<String, Object> tracing() {
+        List<TraceRecord> recent = traceRecorder.recent();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", traceRecorder.isEnabled());
+        status.put("sampleRate", traceRecorder.getSampleRate());
+        status.put("bufferSize", traceRecorder.getBufferSize());
+        status.put("records", recent);
+        return status;
+    }
+
+    /**
+     * Changes the tracing settings. Omitted values are left unchanged.
+     *
+     * @param enabled whether calls are traced
+     * @param sampleRate one traced call out of this many is logged
+     * @return the tracing status
+     */
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Boolean enabled, @Nullable Integer sampleRate) {
+        if (enabled != null) {
+            traceRecorder.setEnabled(enabled);
+        }
+        if (sampleRate != null) {
+            traceRecorder.setSampleRate(sampleRate);
+        }
+        return tracing();
+    }
+}
@@ -0,0 +1,68 @@
+package com.w2m.app.web;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.w2m.app.application.dto.BulkItemResult;
+import com.w2m.app.application.service.SpacecraftBulkService;
+import com.w2m.app.domino.model.Spacecraft;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for creating and updating spacecrafts in bulk, either from a JSON
+ * array or from a newline-delimited JSON (NDJSON) stream.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/spacecraft/bulk")
+@Tag(name = "Spacecraft", description = "CRUD operations to manage spacecraft")
+public class SpacecraftBulkController {
+
+    private final SpacecraftBulkService bulkService;
+    private final ObjectReader reader;
+
+    public SpacecraftBulkController(SpacecraftBulkService bulkService, ObjectMapper objectMapper) {
+        this.bulkService = bulkService;
+        this.reader = objectMapper.readerFor(Spacecraft.class);
+    }
+
+    /**
+     * Creates or updates the spacecrafts of a JSON array.
+     *
+     * @param spacecrafts The spacecrafts to create (without ID) or update (with ID)
+     * @return ResponseEntity with one result per item
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create or update spacecraft in bulk", description = "Creates spacecraft without ID and updates spacecraft with ID, reporting the result of each item.")
+    public ResponseEntity<List<BulkItemResult>> upsertSpacecrafts(@RequestBody List<Spacecraft> spacecrafts){
+        return ResponseEntity.ok(bulkService.upsertAll(spacecrafts.iterator()));
+    }
+
+    /**
+     * Creates or updates the spacecrafts of an NDJSON stream. Items are read from the
+     * request body as they are processed, so the whole body is never held in memory.
+     *
+     * @param body The request body, one spacecraft per line
+     * @return ResponseEntity with one result per item
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create or update spacecraft in bulk from NDJSON", description = "Same as the JSON variant, reading one spacecraft per line.")
+    public ResponseEntity<List<BulkItemResult>> upsertSpacecraftsNdjson(InputStream body) throws IOException {
+        try (MappingIterator<Spacecraft> spacecrafts = reader.readValues(body)) {
+            return ResponseEntity.ok(bulkService.upsertAll(spacecrafts));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.w2m.app.web;
+
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.dto.SpacecraftChangeBatch;
+import com.w2m.app.application.exception.ChangeSequenceExpiredException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller exposing the spacecraft change log, so consumers follow the creates,
+ * updates and deletes instead of polling the whole catalog.
+ * <p>
+ * A consumer reads the current sequence, loads the catalog, and then asks for the
+ * changes after that sequence, either with long polling or as a stream of Server-Sent
+ * Events whose IDs are the change sequences, so a reconnecting {@code EventSource}
+ * resumes where it stopped. Neither holds a request thread while waiting: long polls
+ * are completed by the thread that records the next change, and events are sent from
+ * the {@code spacecraft.changes.stream-threads} threads of this controller.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/spacecraft/changes")
+@Tag(name = "Spacecraft", description = "CRUD operations to manage spacecraft")
+public class SpacecraftChangeController {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final SpacecraftChangeLog changeLog;
+    private final long maxWaitSeconds;
+    private final long streamTimeoutMillis;
+    private final ExecutorService streamSender;
+
+    /**
+     * Constructs a new SpacecraftChangeController.
+     *
+     * @param changeLog the change log to read from
+     * @param maxWait the longest a long poll may wait for a change
+     * @param streamTimeout the time after which an event stream is closed, for the client to reconnect
+     * @param streamThreads the number of threads sending events to the streams
+     */
+    public SpacecraftChangeController(SpacecraftChangeLog changeLog,
+                                      @Value("${spacecraft.changes.max-wait:30s}") Duration maxWait,
+                                      @Value("${spacecraft.changes.stream-timeout:30m}") Duration streamTimeout,
+                                      @Value("${spacecraft.changes.stream-threads:2}") int streamThreads) {
+        this.changeLog = changeLog;
+        this.maxWaitSeconds = maxWait.toSeconds();
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.streamSender = Executors.newFixedThreadPool(streamThreads, runnable -> {
+            Thread thread = new Thread(runnable, "spacecraft-change-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retrieves the changes after the given sequence. Without {@code after}, returns
+     * no changes and the current sequence, to start following the log from. With
+     * {@code wait}, the response is held until a change is recorded or the time runs out.
+     *
+     * @param after Sequence of the last change already applied
+     * @param limit Maximum number of changes returned
+     * @param wait Maximum number of seconds to wait for a change
+     * @return the changes and the sequence to resume from
+     * @throws ChangeSequenceExpiredException if the changes after the sequence are no longer kept
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get spacecraft changes", description = "get the creates, updates and deletes after a sequence, waiting for one if asked to")
+    public DeferredResult<SpacecraftChangeBatch> getChanges(
+            @Parameter(description = "Sequence of the last change already applied") @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of changes returned") @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Seconds to wait for a change if there is none") @RequestParam(defaultValue = "0") int wait
+    ){
+        if (limit < 1 || limit > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_BATCH_SIZE + ": " + limit);
+        }
+        if (wait < 0 || wait > maxWaitSeconds) {
+            throw new IllegalArgumentException("Wait must be between 0 and " + maxWaitSeconds + " seconds: " + wait);
+        }
+        if (after == null) {
+            DeferredResult<SpacecraftChangeBatch> result = new DeferredResult<>();
+            result.setResult(new SpacecraftChangeBatch(List.of(), changeLog.lastSequence()));
+            return result;
+        }
+        List<SpacecraftChange> changes = changeLog.readAfter(after, limit);
+        DeferredResult<SpacecraftChangeBatch> result =
+                new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait), new SpacecraftChangeBatch(List.of(), after));
+        if (!changes.isEmpty() || wait == 0) {
+            result.setResult(batch(after, changes));
+            return result;
+        }
+        Runnable listener = () -> {
+            try {
+                List<SpacecraftChange> recorded = changeLog.readAfter(after, limit);
+                if (!recorded.isEmpty()) {
+                    result.setResult(batch(after, recorded));
+                }
+            } catch (ChangeSequenceExpiredException ex) {
+                result.setErrorResult(ex);
+            }
+        };
+        changeLog.addListener(listener);
+        result.onCompletion(() -> changeLog.removeListener(listener));
+        // A change recorded before the listener was added would not wake it up.
+        listener.run();
+        return result;
+    }
+
+    /**
+     * Streams the changes after the given sequence as Server-Sent Events, each one
+     * carrying a change as JSON and its sequence as event ID. The stream starts after
+     * the {@code Last-Event-ID} sent by a reconnecting client, or else after
+     * {@code after}, or else at the current sequence.
+     *
+     * @param after Sequence of the last change already applied
+     * @param lastEventId ID of the last event received before reconnecting
+     * @return the event stream
+     * @throws ChangeSequenceExpiredException if the changes after the sequence are no longer kept
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream spacecraft changes", description = "stream the creates, updates and deletes after a sequence as Server-Sent Events")
+    public SseEmitter streamChanges(
+            @Parameter(description = "Sequence of the last change already applied") @RequestParam(required = false) Long after,
+            @Parameter(description = "ID of the last event received") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ){
+        long sequence = lastEventId != null ? lastEventId : after != null ? after : changeLog.lastSequence();
+        // Fails before the response is committed if the sequence is no longer kept.
+        changeLog.readAfter(sequence, 1);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        ChangeStream stream = new ChangeStream(emitter, sequence);
+        changeLog.addListener(stream);
+        emitter.onCompletion(() -> changeLog.removeListener(stream));
+        emitter.onTimeout(emitter::complete);
+        stream.run();
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamSender.shutdownNow();
+    }
+
+    private static SpacecraftChangeBatch batch(long after, List<SpacecraftChange> changes) {
+        return new SpacecraftChangeBatch(changes, changes.isEmpty() ? after : changes.get(changes.size() - 1).sequence());
+    }
+
+    /**
+     * Sends the changes of the log to one event stream. Each change recorded schedules
+     * a send, and the sends of a stream never overlap: a send scheduled while another
+     * one is running is done by that one before it returns.
+     */
+    private final class ChangeStream implements Runnable {
+
+        private final SseEmitter emitter;
+        private final AtomicInteger pending = new AtomicInteger();
+        private long sequence;
+        private volatile boolean closed;
+
+        ChangeStream(SseEmitter emitter, long sequence) {
+            this.emitter = emitter;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            if (pending.getAndIncrement() == 0) {
+                streamSender.execute(this::send);
+            }
+        }
+
+        private void send() {
+            int missed = 1;
+            do {
+                try {
+                    List<SpacecraftChange> changes;
+                    while (!closed && !(changes = changeLog.readAfter(sequence, MAX_BATCH_SIZE)).isEmpty()) {
+                        for (SpacecraftChange change : changes) {
+                            emitter.send(SseEmitter.event()
+                                    .id(Long.toString(change.sequence()))
+                                    .data(change, MediaType.APPLICATION_JSON));
+                        }
+                        sequence = changes.get(changes.size() - 1).sequence();
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    if (!closed) {
+                        closed = true;
+                        changeLog.removeListener(this);
+                        emitter.completeWithError(ex);
+                    }
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.w2m.app.web;
 
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.app.application.dto.SpacecraftFacetCounts;
 import com.w2m.app.application.service.SpacecraftService;
 import com.w2m.app.domino.model.Spacecraft;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,17 +11,20 @@ import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -38,6 +43,28 @@ public class SpacecraftController {
 
     private static final Logger logger = LoggerFactory.getLogger(SpacecraftController.class);
 
+    /**
+     * Path of a single spacecraft. Only numeric IDs match, so the sibling endpoints
+     * like {@code /export} or {@code /changes} are never taken for an ID when they
+     * cannot produce what the request accepts, and answer 406 instead. The sign is
+     * kept so negative IDs still get their 400.
+     */
+    private static final String ID_PATH = "/{id:-?\\d+}";
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * The media types a spacecraft can be written as, in converter order.
+     */
+    private static final List<MediaType> SPACECRAFT_REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            APPLICATION_SMILE, MediaType.APPLICATION_CBOR, SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+
+    /**
+     * The media types a list of spacecrafts can be written as, in converter order.
+     */
+    private static final List<MediaType> LIST_REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+
     private final SpacecraftService service;
 
     public SpacecraftController(SpacecraftService service) {
@@ -53,46 +80,143 @@ public class SpacecraftController {
     @GetMapping
     @Operation(summary = "get all spacecraft", description = "get a paginated lis of all registered spacecraft")
     public ResponseEntity<Page<Spacecraft>> getAllSpacecrafts(Pageable pageable){
-        logger.info("Fetching all spacecraft with pagination");
         return ResponseEntity.ok(service.getAllSpacecraft(pageable));
     }
 
     /**
-     * Retrieves a spacecraft by its ID.
+     * Retrieves a page of spacecrafts using keyset pagination. This mode is selected
+     * when the {@code cursor} parameter is present (empty for the first page).
+     *
+     * @param cursor Opaque cursor returned with the previous page
+     * @param size Maximum number of spacecrafts in the page
+     * @return ResponseEntity with the page of spacecrafts and the cursor of the next one
+     */
+    @GetMapping(params = "cursor")
+    @Operation(summary = "get all spacecraft by cursor", description = "get a page of spacecraft after the given cursor, without total count")
+    public ResponseEntity<CursorPage<Spacecraft>> getAllSpacecraftsByCursor(
+            @Parameter(description = "Cursor returned with the previous page, empty for the first page") @RequestParam String cursor,
+            @Parameter(description = "Maximum number of spacecraft in the page") @RequestParam(defaultValue = "20") int size
+    ){
+        return ResponseEntity.ok(service.getSpacecraftPage(cursor, size));
+    }
+
+    /**
+     * Retrieves a paginated list of the spacecrafts matching every given filter.
+     *
+     * @param type Exact type of the spacecrafts
+     * @param origin Exact origin of the spacecrafts
+     * @param name Text the spacecraft names must contain
+     * @param pageable Pageable object to apply pagination parameters
+     * @return ResponseEntity with the page of matching spacecrafts
+     */
+    @GetMapping("/filter")
+    @Operation(summary = "Filter spacecraft", description = "get a paginated list of the spacecraft matching the given type, origin and name")
+    public ResponseEntity<Page<Spacecraft>> filterSpacecraft(
+            @Parameter(description = "Type of the spacecraft") @RequestParam(required = false) String type,
+            @Parameter(description = "Origin of the spacecraft") @RequestParam(required = false) String origin,
+            @Parameter(description = "Search for in the spacecraft name") @RequestParam(required = false) String name,
+            Pageable pageable
+    ){
+        return ResponseEntity.ok(service.filterSpacecraft(type, origin, name, pageable));
+    }
+
+    /**
+     * Retrieves the number of spacecrafts per type and per origin. Each facet is
+     * counted over the spacecrafts matching the filter on the other one.
+     *
+     * @param type Type to filter the origin counts by
+     * @param origin Origin to filter the type counts by
+     * @return ResponseEntity with the facet counts
+     */
+    @GetMapping("/facets")
+    @Operation(summary = "Count spacecraft by type and origin", description = "get the number of spacecraft per type and per origin")
+    public ResponseEntity<SpacecraftFacetCounts> getSpacecraftFacets(
+            @Parameter(description = "Type to filter the origin counts by") @RequestParam(required = false) String type,
+            @Parameter(description = "Origin to filter the type counts by") @RequestParam(required = false) String origin
+    ){
+        return ResponseEntity.ok(service.getSpacecraftFacets(type, origin));
+    }
+
+    /**
+     * Retrieves several spacecrafts by their IDs in a single request. This mode is
+     * selected when the {@code ids} parameter is present. IDs that do not exist are
+     * left out of the response.
+     *
+     * @param ids The IDs of the spacecrafts to be fetched, comma separated
+     * @return ResponseEntity with the spacecrafts found, in the requested order
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Obtain several spacecraft by ID", description = "Get the details of the spacecraft with the given IDs in a single request.")
+    public ResponseEntity<List<Spacecraft>> getSpacecraftsByIds(
+            @Parameter(description = "Comma separated IDs of the spacecraft to fetch") @RequestParam List<Long> ids
+    ){
+        return ResponseEntity.ok(service.getSpacecraftsByIds(ids));
+    }
+
+    /**
+     * Retrieves a spacecraft by its ID. The response carries an ETag of the
+     * representation the request accepts, and a request whose {@code If-None-Match}
+     * matches it gets a 304 without body.
      *
      * @param id The ID of the spacecraft to be fetched
+     * @param accept The media types the client accepts
      * @return ResponseEntity with the spacecraft details, or a 404 error if not found
      * @throws EntityNotFoundException If the spacecraft with the given ID is not found
      */
-    @GetMapping("/{id}")
+    @GetMapping(ID_PATH)
     @Operation(summary = "Obtain a spacecraft by ID", description = "Get the details of a specific spacecraft using its ID.")
     public ResponseEntity<Spacecraft> getSpacecraftById(
-            @Parameter(description = "Id of the spacecraft to search for") @PathVariable Long id
+            @Parameter(description = "Id of the spacecraft to search for") @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ){
-        logger.info("Fetching spacecraft with ID: {}", id);
+        MediaType representation = SpacecraftETags.representation(accept, SPACECRAFT_REPRESENTATIONS);
         return service.getSpacecraftById(id)
-                .map(ResponseEntity::ok)
+                .map(spacecraft -> ResponseEntity.ok().eTag(SpacecraftETags.of(spacecraft, representation)).body(spacecraft))
                 .orElseThrow(
                     () -> {
-                        logger.error("Spacecraft not found with id: {}", id);
+                        logger.debug("Spacecraft not found with id: {}", id);
                         return new EntityNotFoundException("Spacecraft not found with id: " + id);
                     }
                 );
     }
 
     /**
-     * Searches for spacecraft by their name.
+     * Searches for spacecraft by their name. The response carries an ETag of the
+     * representation the request accepts, and a request whose {@code If-None-Match}
+     * matches it gets a 304 without body.
      *
      * @param name Name (or part of name) to search for in spacecraft names
+     * @param accept The media types the client accepts
      * @return ResponseEntity with a list of spacecraft matching the search criteria
      */
     @GetMapping("/find")
     @Operation(summary = "Search for spacecraft by name", description = "Searches for spacecraft containing specific text in the name.")
     public ResponseEntity<List<Spacecraft>> searchSpacecraftByName(
-            @Parameter(description = "Search for in the spacecraft name") @RequestParam String name
+            @Parameter(description = "Search for in the spacecraft name") @RequestParam String name,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ){
-        logger.info("Searching spacecraft by name: {}", name);
-        return ResponseEntity.ok(service.searchSpacecraftByName(name));
+        List<Spacecraft> spacecrafts = service.searchSpacecraftByName(name);
+        return ResponseEntity.ok()
+                .eTag(SpacecraftETags.of(spacecrafts, SpacecraftETags.representation(accept, LIST_REPRESENTATIONS)))
+                .body(spacecrafts);
+    }
+
+    /**
+     * Searches for spacecraft whose name starts with the given prefix, ignoring case.
+     * This mode is selected when the {@code prefix} parameter is present and is meant
+     * for autocomplete.
+     *
+     * @param prefix Start of the spacecraft names to search for
+     * @param limit Maximum number of spacecraft returned
+     * @return ResponseEntity with the matching spacecraft, in name order
+     */
+    @GetMapping(value = "/find", params = "prefix")
+    @Operation(summary = "Search for spacecraft by name prefix", description = "Searches for spacecraft whose name starts with the given text, ignoring case.")
+    public ResponseEntity<List<Spacecraft>> searchSpacecraftByNamePrefix(
+            @Parameter(description = "Start of the spacecraft name") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of spacecraft returned") @RequestParam(defaultValue = "10") int limit
+    ){
+        return ResponseEntity.ok(service.searchSpacecraftByNamePrefix(prefix, limit));
     }
 
     /**
@@ -104,27 +228,68 @@ public class SpacecraftController {
     @PostMapping
     @Operation(summary = "Create a new spacecraft", description = "Creates a new spacecraft in the system.")
     public ResponseEntity<Spacecraft> saveSpacecraft(@RequestBody Spacecraft spacecraft){
-        logger.info("Creating new spacecraft with name: {}", spacecraft.getName());
         Spacecraft createdSpacecraft = service.createSpacecraft(spacecraft);
         return new ResponseEntity<>(createdSpacecraft, HttpStatus.CREATED);
     }
 
     /**
-     * Updates the details of an existing spacecraft.
+     * Updates the details of an existing spacecraft. With an {@code If-Match} header
+     * the update only applies if the spacecraft still has that ETag, and a concurrent
+     * update always makes the later one fail with a 409 instead of overwriting it.
      *
      * @param id The ID of the spacecraft to be updated
+     * @param ifMatch ETag the spacecraft must still have, or {@code *}
+     * @param accept The media types the client accepts
      * @param spacecraft The updated spacecraft object
-     * @return ResponseEntity with the updated spacecraft details
+     * @return ResponseEntity with the updated spacecraft details and its new ETag
      */
-    @PutMapping("/{id}")
+    @PutMapping(ID_PATH)
     @Operation(summary = "Updates the details of an existing spacecraft.", description = "Updates the details of an existing spacecraft.")
-    @CacheEvict(value = "spacecraftById", key = "#id")
     public ResponseEntity<Spacecraft> updateSpacecraft(
             @Parameter(description = "ID of the spacecraft to update")
-            @PathVariable Long id, @RequestBody Spacecraft spacecraft
+            @PathVariable Long id,
+            @Parameter(description = "ETag the spacecraft must still have")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody Spacecraft spacecraft
+    ){
+        Spacecraft updated = service.updateSpacecraft(id, spacecraft, SpacecraftETags.version(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(SpacecraftETags.of(updated, SpacecraftETags.representation(accept, SPACECRAFT_REPRESENTATIONS)))
+                .body(updated);
+    }
+
+    /**
+     * Changes the given fields of an existing spacecraft with a single conditional
+     * {@code UPDATE}, without reading it first. The {@code If-Match} header with the
+     * current ETag of the spacecraft is required, and a 409 is returned if the
+     * spacecraft has been modified since.
+     *
+     * @param id The ID of the spacecraft to be updated
+     * @param ifMatch ETag the spacecraft must still have
+     * @param accept The media types the client accepts
+     * @param changes The fields to change; the ones left out are kept
+     * @return ResponseEntity with the updated spacecraft details and its new ETag,
+     *         or a 428 if the {@code If-Match} header is missing
+     */
+    @PatchMapping(ID_PATH)
+    @Operation(summary = "Partially updates an existing spacecraft.", description = "Changes the given fields of a spacecraft if it still has the ETag sent in If-Match.")
+    public ResponseEntity<Spacecraft> patchSpacecraft(
+            @Parameter(description = "ID of the spacecraft to update")
+            @PathVariable Long id,
+            @Parameter(description = "ETag the spacecraft must still have")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody Spacecraft changes
     ){
-        logger.info("Updating spacecraft with ID: {}", id);
-        return ResponseEntity.ok(service.updateSpacecraft(id, spacecraft));
+        Long version = SpacecraftETags.version(id, ifMatch);
+        if (version == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        Spacecraft patched = service.patchSpacecraft(id, changes, version);
+        return ResponseEntity.ok()
+                .eTag(SpacecraftETags.of(patched, SpacecraftETags.representation(accept, SPACECRAFT_REPRESENTATIONS)))
+                .body(patched);
     }
 
     /**
@@ -133,14 +298,29 @@ public class SpacecraftController {
      * @param id The ID of the spacecraft to be deleted
      * @return ResponseEntity with no content and a 204 status code
      */
-    @DeleteMapping("/{id}")
+    @DeleteMapping(ID_PATH)
     @Operation(summary = "‘Delete a spacecraft", description = "Removes a specific spacecraft from the system.")
-    @CacheEvict(value = "spacecraftById", key = "#id")
     public ResponseEntity<Void> deleteSpacecraft(
             @Parameter(description = "ID of the spacecraft to be deleted") @PathVariable Long id
     ){
-        logger.info("Deleting spacecraft with ID: {}", id);
         service.deleteSpacecraft(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Deletes several spacecrafts in a single request. This mode is selected when the
+     * {@code ids} parameter is present. IDs that do not exist are ignored.
+     *
+     * @param ids The IDs of the spacecrafts to be deleted, comma separated
+     * @return ResponseEntity with no content and a 204 status code, or a 404 error if none was found
+     * @throws EntityNotFoundException If none of the spacecrafts with the given IDs is found
+     */
+    @DeleteMapping(params = "ids")
+    @Operation(summary = "Delete several spacecraft", description = "Removes the spacecraft with the given IDs in a single request.")
+    public ResponseEntity<Void> deleteSpacecrafts(
+            @Parameter(description = "Comma separated IDs of the spacecraft to delete") @RequestParam List<Long> ids
+    ){
+        service.deleteSpacecrafts(ids);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,141 @@
+package com.w2m.app.web;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Computes the strong ETags of the spacecraft resources.
+ * <p>
+ * A spacecraft's version is incremented on every update, so its ID and version
+ * identify the exact representation that would be sent. The tag is derived from
+ * them instead of from the serialized body, which lets the controller answer
+ * {@code If-None-Match} with a 304 without serializing anything, and turns the
+ * {@code If-Match} of a write back into the version it expects. Lists are tagged
+ * with a 64-bit hash of the IDs and versions of their elements, in order.
+ * <p>
+ * The same version is sent as JSON, Smile, CBOR or Protobuf depending on the
+ * {@code Accept} header, and each of those bodies is a different representation, so
+ * the tags of the binary ones carry the format after the version ({@code "1-3+cbor"}).
+ * The controller resolves the format the request will get with
+ * {@link #representation(String, List)} before the tag is compared with
+ * {@code If-None-Match}.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+final class SpacecraftETags {
+
+    private static final Pattern SPACECRAFT_TAG = Pattern.compile("\"(\\d+)-(\\d+)(?:\\+[a-z]+)?\"");
+
+    private SpacecraftETags() {
+    }
+
+    /**
+     * Returns the ETag of a spacecraft.
+     *
+     * @param spacecraft the spacecraft
+     * @param representation the media type the spacecraft is sent as
+     * @return the quoted strong ETag, or {@code null} if the spacecraft has no version
+     */
+    static String of(Spacecraft spacecraft, MediaType representation) {
+        if (spacecraft.getVersion() == null) {
+            return null;
+        }
+        return "\"" + spacecraft.getId() + "-" + spacecraft.getVersion() + format(representation) + "\"";
+    }
+
+    /**
+     * Returns the ETag of a list of spacecrafts.
+     *
+     * @param spacecrafts the spacecrafts, in the order they are sent
+     * @param representation the media type the list is sent as
+     * @return the quoted strong ETag, or {@code null} if any spacecraft has no version
+     */
+    static String of(List<Spacecraft> spacecrafts, MediaType representation) {
+        long hash = 0xcbf29ce484222325L;
+        for (Spacecraft spacecraft : spacecrafts) {
+            if (spacecraft.getVersion() == null) {
+                return null;
+            }
+            hash = mix(hash, spacecraft.getId());
+            hash = mix(hash, spacecraft.getVersion());
+        }
+        return "\"" + spacecrafts.size() + "-" + Long.toHexString(hash) + format(representation) + "\"";
+    }
+
+    /**
+     * Returns the media type a response will be written as: the first of the
+     * producible ones, in converter order, that the most preferred acceptable media
+     * type is compatible with. Without a usable {@code Accept} header it is the first
+     * producible one.
+     *
+     * @param accept the value of the {@code Accept} header, possibly {@code null}
+     * @param producible the media types the response can be written as, in converter order
+     * @return the media type of the response
+     */
+    static MediaType representation(String accept, List<MediaType> producible) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = accept == null || accept.isBlank() ? List.of() : MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            acceptable = List.of();
+        }
+        acceptable = new ArrayList<>(acceptable);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType requested : acceptable) {
+            if (requested.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType candidate : producible) {
+                if (requested.isCompatibleWith(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return producible.get(0);
+    }
+
+    /**
+     * Returns the version a spacecraft must have for an {@code If-Match} precondition
+     * to hold. Only a single strong ETag of the spacecraft itself, in any of its
+     * formats, or {@code *}, is accepted.
+     *
+     * @param id the ID of the spacecraft being written
+     * @param ifMatch the value of the {@code If-Match} header, possibly {@code null}
+     * @return the expected version, or {@code null} if any version matches
+     * @throws IllegalArgumentException if the header is not an ETag of this spacecraft
+     */
+    static Long version(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher matcher = SPACECRAFT_TAG.matcher(ifMatch.trim());
+        if (!matcher.matches() || !matcher.group(1).equals(String.valueOf(id))) {
+            throw new IllegalArgumentException("If-Match must be the ETag of spacecraft " + id + ": " + ifMatch);
+        }
+        return Long.valueOf(matcher.group(2));
+    }
+
+    /**
+     * Returns the suffix naming a binary format in a tag, the last word of its
+     * subtype ({@code +smile}, {@code +cbor}, {@code +protobuf}), and nothing for JSON.
+     */
+    private static String format(MediaType representation) {
+        if (representation == null || MediaType.APPLICATION_JSON.isCompatibleWith(representation)) {
+            return "";
+        }
+        String subtype = representation.getSubtype();
+        return "+" + subtype.substring(subtype.lastIndexOf('-') + 1);
+    }
+
+    private static long mix(long hash, long value) {
+        long mixed = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return mixed ^ (mixed >>> 29);
+    }
+}
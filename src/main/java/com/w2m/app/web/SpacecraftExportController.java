@@ -0,0 +1,45 @@
+package com.w2m.app.web;
+
+import com.w2m.app.application.service.SpacecraftExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller exposing the full spacecraft catalog as a streamed NDJSON dump for
+ * downstream systems.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/spacecraft/export")
+@Tag(name = "Spacecraft", description = "CRUD operations to manage spacecraft")
+public class SpacecraftExportController {
+
+    private final SpacecraftExportService exportService;
+
+    public SpacecraftExportController(SpacecraftExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Streams every spacecraft as newline-delimited JSON straight to the response body.
+     *
+     * @param response the HTTP response to write the export to
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all spacecraft", description = "Streams the whole catalog as newline-delimited JSON.")
+    public void exportSpacecraft(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        exportService.exportAll(response.getOutputStream());
+    }
+}
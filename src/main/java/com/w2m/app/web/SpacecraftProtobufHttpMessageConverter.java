@@ -0,0 +1,182 @@
+package com.w2m.app.web;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.w2m.app.domino.model.Spacecraft;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * Message converter writing spacecrafts and pages of spacecrafts as Protocol Buffers,
+ * and reading a spacecraft from them, for clients sending
+ * {@code Accept: application/x-protobuf}.
+ * <p>
+ * The messages are {@code Spacecraft} and {@code SpacecraftPage} of
+ * {@code proto/spacecraft.proto}, which clients compile with {@code protoc}. They are
+ * encoded and decoded here field by field with the protobuf runtime, so the entity is
+ * written as it is, without generated classes or a copy into them. Null fields are
+ * left out, and read back as null.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public class SpacecraftProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int ID_TAG = tag(1, WireFormat.WIRETYPE_VARINT);
+    private static final int NAME_TAG = tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int TYPE_TAG = tag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int ORIGIN_TAG = tag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int VERSION_TAG = tag(5, WireFormat.WIRETYPE_VARINT);
+
+    private static final int PAGE_CONTENT = 1;
+    private static final int PAGE_NUMBER = 2;
+    private static final int PAGE_SIZE = 3;
+    private static final int PAGE_TOTAL_ELEMENTS = 4;
+    private static final int PAGE_TOTAL_PAGES = 5;
+
+    /**
+     * Constructs a new SpacecraftProtobufHttpMessageConverter for {@code application/x-protobuf}.
+     */
+    public SpacecraftProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Spacecraft.class == clazz || Page.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return Spacecraft.class == clazz && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type == Spacecraft.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!supports(clazz) || !canWrite(mediaType)) {
+            return false;
+        }
+        if (Spacecraft.class == clazz) {
+            return true;
+        }
+        Class<?> element = ResolvableType.forType(type != null ? type : clazz).as(Page.class).resolveGeneric(0);
+        return element == Spacecraft.class;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(Spacecraft.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody());
+        Long id = null;
+        String name = null;
+        String type = null;
+        String origin = null;
+        Long version = null;
+        try {
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                if (tag == ID_TAG) {
+                    id = input.readInt64();
+                } else if (tag == NAME_TAG) {
+                    name = input.readString();
+                } else if (tag == TYPE_TAG) {
+                    type = input.readString();
+                } else if (tag == ORIGIN_TAG) {
+                    origin = input.readString();
+                } else if (tag == VERSION_TAG) {
+                    version = input.readInt64();
+                } else {
+                    input.skipField(tag);
+                }
+            }
+        } catch (IOException ex) {
+            throw new HttpMessageNotReadableException("Invalid Spacecraft message: " + ex.getMessage(), ex, inputMessage);
+        }
+        return new Spacecraft(id, name, type, origin, version);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (object instanceof Spacecraft spacecraft) {
+            writeSpacecraft(output, spacecraft);
+        } else {
+            Page<?> page = (Page<?>) object;
+            for (Object element : page.getContent()) {
+                if (!(element instanceof Spacecraft spacecraft)) {
+                    throw new HttpMessageNotWritableException("Only pages of spacecraft can be written as protobuf");
+                }
+                output.writeTag(PAGE_CONTENT, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(spacecraftSize(spacecraft));
+                writeSpacecraft(output, spacecraft);
+            }
+            output.writeInt32(PAGE_NUMBER, page.getNumber());
+            output.writeInt32(PAGE_SIZE, page.getSize());
+            output.writeInt64(PAGE_TOTAL_ELEMENTS, page.getTotalElements());
+            output.writeInt32(PAGE_TOTAL_PAGES, page.getTotalPages());
+        }
+        output.flush();
+    }
+
+    private static void writeSpacecraft(CodedOutputStream output, Spacecraft spacecraft) throws IOException {
+        if (spacecraft.getId() != null) {
+            output.writeInt64(1, spacecraft.getId());
+        }
+        if (spacecraft.getName() != null) {
+            output.writeString(2, spacecraft.getName());
+        }
+        if (spacecraft.getType() != null) {
+            output.writeString(3, spacecraft.getType());
+        }
+        if (spacecraft.getOrigin() != null) {
+            output.writeString(4, spacecraft.getOrigin());
+        }
+        if (spacecraft.getVersion() != null) {
+            output.writeInt64(5, spacecraft.getVersion());
+        }
+    }
+
+    private static int spacecraftSize(Spacecraft spacecraft) {
+        int size = 0;
+        if (spacecraft.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(1, spacecraft.getId());
+        }
+        if (spacecraft.getName() != null) {
+            size += CodedOutputStream.computeStringSize(2, spacecraft.getName());
+        }
+        if (spacecraft.getType() != null) {
+            size += CodedOutputStream.computeStringSize(3, spacecraft.getType());
+        }
+        if (spacecraft.getOrigin() != null) {
+            size += CodedOutputStream.computeStringSize(4, spacecraft.getOrigin());
+        }
+        if (spacecraft.getVersion() != null) {
+            size += CodedOutputStream.computeInt64Size(5, spacecraft.getVersion());
+        }
+        return size;
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
+}
@@ -0,0 +1,223 @@
+package com.w2m.reactive.application.service;
+
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.app.application.exception.NegativeIdException;
+import com.w2m.reactive.application.exception.SpacecraftNotFoundException;
+import com.w2m.reactive.domino.model.Spacecraft;
+import com.w2m.reactive.domino.repository.ReactiveSpacecraftRepository;
+import com.w2m.reactive.infraestructura.cache.ReactiveSpacecraftCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveSpacecraftServiceTest {
+
+    @Mock
+    private ReactiveSpacecraftRepository spacecraftRepository;
+
+    private ReactiveSpacecraftService spacecraftService;
+
+    private Spacecraft spacecraft;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveSpacecraftCache spacecraftCache = new ReactiveSpacecraftCache(
+                "maximumSize=100", "maximumSize=100", new SimpleMeterRegistry());
+        spacecraftService = new ReactiveSpacecraftService(spacecraftRepository, spacecraftCache, Schedulers.immediate());
+        spacecraft = new Spacecraft(1L, "Enterprise", "Fighter", "Earth", 0L);
+    }
+
+    @Test
+    void testGetAllSpacecraftCombinesPageAndCount() {
+        PageRequest pageable = PageRequest.of(1, 1);
+        when(spacecraftRepository.findAllBy(pageable)).thenReturn(Flux.just(spacecraft));
+        when(spacecraftRepository.count()).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(spacecraftService.getAllSpacecraft(pageable))
+                .assertNext(page -> {
+                    assertEquals(List.of(spacecraft), page.getContent());
+                    assertEquals(3, page.getTotalElements());
+                    assertEquals(3, page.getTotalPages());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetSpacecraftPageWithNextPage() {
+        Spacecraft second = new Spacecraft(2L, "Voyager", "Explorer", "Earth", 0L);
+        when(spacecraftRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(Flux.just(spacecraft, second));
+
+        StepVerifier.create(spacecraftService.getSpacecraftPage("", 1))
+                .expectNext(new CursorPage<>(List.of(spacecraft), CursorPage.encode(1L)))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetSpacecraftPageRejectsInvalidArguments() {
+        StepVerifier.create(spacecraftService.getSpacecraftPage("", 0))
+                .verifyError(IllegalArgumentException.class);
+        StepVerifier.create(spacecraftService.getSpacecraftPage("not-a-cursor", 10))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testGetSpacecraftByIdIsCached() {
+        when(spacecraftRepository.findById(1L)).thenReturn(Mono.just(spacecraft));
+
+        StepVerifier.create(spacecraftService.getSpacecraftById(1L)).expectNext(spacecraft).verifyComplete();
+        StepVerifier.create(spacecraftService.getSpacecraftById(1L)).expectNext(spacecraft).verifyComplete();
+
+        verify(spacecraftRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        when(spacecraftRepository.findById(1L)).thenReturn(Mono.just(spacecraft)
+                .delayElement(Duration.ofMillis(100))
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet()));
+
+        StepVerifier.create(Flux.merge(spacecraftService.getSpacecraftById(1L), spacecraftService.getSpacecraftById(1L)))
+                .expectNext(spacecraft, spacecraft)
+                .verifyComplete();
+
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    void testCancelledLookupDoesNotCancelSharedLoad() {
+        when(spacecraftRepository.findById(1L)).thenReturn(Mono.just(spacecraft).delayElement(Duration.ofMillis(100)));
+
+        StepVerifier.create(spacecraftService.getSpacecraftById(1L)).thenCancel().verify();
+
+        StepVerifier.create(spacecraftService.getSpacecraftById(1L)).expectNext(spacecraft).verifyComplete();
+        verify(spacecraftRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testGetSpacecraftByIdNotFoundIsNotCached() {
+        when(spacecraftRepository.findById(2L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(spacecraftService.getSpacecraftById(2L)).verifyComplete();
+        StepVerifier.create(spacecraftService.getSpacecraftById(2L)).verifyComplete();
+
+        verify(spacecraftRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void testGetSpacecraftByIdNegative() {
+        StepVerifier.create(spacecraftService.getSpacecraftById(-1L)).verifyError(NegativeIdException.class);
+
+        verify(spacecraftRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    void testSearchSpacecraftByNameIsCachedUntilAWrite() {
+        when(spacecraftRepository.findByNameContaining("Enter")).thenReturn(Flux.just(spacecraft));
+        when(spacecraftRepository.nextId()).thenReturn(Mono.just(1050L));
+        when(spacecraftRepository.save(any(Spacecraft.class))).thenReturn(Mono.just(spacecraft));
+
+        StepVerifier.create(spacecraftService.searchSpacecraftByName("Enter")).expectNext(List.of(spacecraft)).verifyComplete();
+        StepVerifier.create(spacecraftService.searchSpacecraftByName("Enter")).expectNext(List.of(spacecraft)).verifyComplete();
+        StepVerifier.create(spacecraftService.createSpacecraft(spacecraft)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(spacecraftService.searchSpacecraftByName("Enter")).expectNext(List.of(spacecraft)).verifyComplete();
+
+        verify(spacecraftRepository, times(2)).findByNameContaining("Enter");
+    }
+
+    @Test
+    void testSearchSpacecraftByNamePrefixEscapesWildcards() {
+        when(spacecraftRepository.findByNamePrefix("x\\_w\\%%", 10)).thenReturn(Flux.just(spacecraft));
+
+        StepVerifier.create(spacecraftService.searchSpacecraftByNamePrefix("X_W%", 10))
+                .expectNext(List.of(spacecraft))
+                .verifyComplete();
+    }
+
+    @Test
+    void testSearchSpacecraftByNamePrefixRejectsInvalidArguments() {
+        StepVerifier.create(spacecraftService.searchSpacecraftByNamePrefix(" ", 10))
+                .verifyError(IllegalArgumentException.class);
+        StepVerifier.create(spacecraftService.searchSpacecraftByNamePrefix("x", 101))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testCreateSpacecraftTakesIdFromSequenceAndWritesThrough() {
+        Spacecraft created = new Spacecraft(1050L, "Enterprise", "Fighter", "Earth", 0L);
+        when(spacecraftRepository.nextId()).thenReturn(Mono.just(1050L));
+        when(spacecraftRepository.save(new Spacecraft(1050L, "Enterprise", "Fighter", "Earth", null)))
+                .thenReturn(Mono.just(created));
+
+        StepVerifier.create(spacecraftService.createSpacecraft(new Spacecraft(7L, "Enterprise", "Fighter", "Earth", 3L)))
+                .expectNext(created)
+                .verifyComplete();
+        StepVerifier.create(spacecraftService.getSpacecraftById(1050L)).expectNext(created).verifyComplete();
+
+        verify(spacecraftRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    void testUpdateSpacecraftKeepsStoredVersion() {
+        Spacecraft updated = new Spacecraft(1L, "Voyager", "Explorer", "Earth", 1L);
+        when(spacecraftRepository.findById(1L)).thenReturn(Mono.just(spacecraft));
+        when(spacecraftRepository.save(new Spacecraft(1L, "Voyager", "Explorer", "Earth", 0L)))
+                .thenReturn(Mono.just(updated));
+
+        StepVerifier.create(spacecraftService.updateSpacecraft(1L, new Spacecraft(null, "Voyager", "Explorer", "Earth", null)))
+                .expectNext(updated)
+                .verifyComplete();
+        StepVerifier.create(spacecraftService.getSpacecraftById(1L)).expectNext(updated).verifyComplete();
+    }
+
+    @Test
+    void testUpdateSpacecraftNotFound() {
+        when(spacecraftRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(spacecraftService.updateSpacecraft(1L, spacecraft))
+                .verifyError(SpacecraftNotFoundException.class);
+
+        verify(spacecraftRepository, never()).save(any(Spacecraft.class));
+    }
+
+    @Test
+    void testDeleteSpacecraftEvictsIt() {
+        when(spacecraftRepository.findById(1L)).thenReturn(Mono.just(spacecraft), Mono.empty());
+        when(spacecraftRepository.existsById(1L)).thenReturn(Mono.just(true));
+        when(spacecraftRepository.deleteById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(spacecraftService.getSpacecraftById(1L)).expectNext(spacecraft).verifyComplete();
+        StepVerifier.create(spacecraftService.deleteSpacecraft(1L)).verifyComplete();
+        StepVerifier.create(spacecraftService.getSpacecraftById(1L)).verifyComplete();
+    }
+
+    @Test
+    void testDeleteSpacecraftNotFound() {
+        when(spacecraftRepository.existsById(1L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(spacecraftService.deleteSpacecraft(1L)).verifyError(SpacecraftNotFoundException.class);
+
+        verify(spacecraftRepository, never()).deleteById(any(Long.class));
+    }
+}
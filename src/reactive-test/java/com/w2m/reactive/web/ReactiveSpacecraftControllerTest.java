@@ -0,0 +1,157 @@
+package com.w2m.reactive.web;
+
+import com.w2m.reactive.ReactiveSpacecraftApplication;
+import com.w2m.reactive.domino.model.Spacecraft;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(classes = ReactiveSpacecraftApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.config.name=reactive", "spring.main.web-application-type=reactive"})
+class ReactiveSpacecraftControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testGetAllSpacecraftsReturnsPage() {
+        webTestClient.get().uri("/api/spacecraft?size=2&sort=id")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].name").isEqualTo("X-Wing")
+                .jsonPath("$.content[0].version").isEqualTo(0)
+                .jsonPath("$.totalElements").isNumber();
+    }
+
+    @Test
+    void testGetAllSpacecraftsByCursor() {
+        webTestClient.get().uri("/api/spacecraft?cursor=&size=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(3)
+                .jsonPath("$.content[0].id").isEqualTo(1)
+                .jsonPath("$.nextCursor").isNotEmpty();
+    }
+
+    @Test
+    void testStreamAllSpacecraftsAsNdjson() {
+        Flux<Spacecraft> stream = webTestClient.get().uri("/api/spacecraft")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Spacecraft.class)
+                .getResponseBody();
+
+        StepVerifier.create(stream.take(2).map(Spacecraft::name))
+                .expectNext("X-Wing", "TIE Fighter")
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetSpacecraftByIdWithETag() {
+        String eTag = webTestClient.get().uri("/api/spacecraft/3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Millennium Falcon")
+                .returnResult()
+                .getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        webTestClient.get().uri("/api/spacecraft/3")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testGetSpacecraftByIdErrors() {
+        webTestClient.get().uri("/api/spacecraft/999999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Spacecraft not found with id: 999999");
+        webTestClient.get().uri("/api/spacecraft/-1")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testSearchSpacecraftByName() {
+        webTestClient.get().uri("/api/spacecraft/find?name=Fighter")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("TIE Fighter");
+        webTestClient.get().uri("/api/spacecraft/find?name=_")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    @Test
+    void testStreamSpacecraftByNameAsNdjson() {
+        Flux<Spacecraft> stream = webTestClient.get().uri("/api/spacecraft/find?name=Star")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Spacecraft.class)
+                .getResponseBody();
+
+        StepVerifier.create(stream.map(Spacecraft::name)).expectNext("Star Destroyer").verifyComplete();
+    }
+
+    @Test
+    void testSearchSpacecraftByNamePrefix() {
+        webTestClient.get().uri("/api/spacecraft/find?prefix=mill")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Millennium Falcon");
+    }
+
+    @Test
+    void testCreateUpdateAndDeleteSpacecraft() {
+        Spacecraft created = webTestClient.post().uri("/api/spacecraft")
+                .bodyValue(new Spacecraft(null, "Reactive Runner", "Fighter", "Earth", null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Spacecraft.class)
+                .returnResult().getResponseBody();
+        assertNotNull(created);
+
+        webTestClient.put().uri("/api/spacecraft/" + created.id())
+                .bodyValue(new Spacecraft(null, "Reactive Runner II", "Fighter", "Earth", null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Reactive Runner II")
+                .jsonPath("$.version").isEqualTo(1);
+        webTestClient.get().uri("/api/spacecraft/find?name=Runner II")
+                .exchange()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(created.id());
+
+        webTestClient.delete().uri("/api/spacecraft/" + created.id())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/api/spacecraft/" + created.id())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/spacecraft/" + created.id())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
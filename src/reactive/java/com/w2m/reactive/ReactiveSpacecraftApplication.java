@@ -0,0 +1,28 @@
+package com.w2m.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Reactive variant of the spacecraft API: the same {@code /api/spacecraft} contract
+ * served by WebFlux on Netty, over R2DBC.
+ * <p>
+ * It lives outside {@code com.w2m.app} so the MVC application does not scan it, and it
+ * reads {@code reactive.properties} instead of {@code application.properties}, so it
+ * shares the Liquibase changelog but none of the servlet-side settings.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@SpringBootApplication
+public class ReactiveSpacecraftApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveSpacecraftApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.properties("spring.config.name=reactive")
+				.run(args);
+	}
+
+}
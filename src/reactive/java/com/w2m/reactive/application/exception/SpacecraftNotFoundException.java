@@ -0,0 +1,15 @@
+package com.w2m.reactive.application.exception;
+
+/**
+ * Thrown when the spacecraft an operation refers to does not exist. The reactive
+ * counterpart of the {@code EntityNotFoundException} thrown by the MVC service.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public class SpacecraftNotFoundException extends RuntimeException {
+
+    public SpacecraftNotFoundException(Long id) {
+        super("Spacecraft not found with id: " + id);
+    }
+}
@@ -0,0 +1,225 @@
+package com.w2m.reactive.application.service;
+
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.app.application.exception.NegativeIdException;
+import com.w2m.reactive.application.exception.SpacecraftNotFoundException;
+import com.w2m.reactive.domino.model.Spacecraft;
+import com.w2m.reactive.domino.repository.ReactiveSpacecraftRepository;
+import com.w2m.reactive.infraestructura.cache.ReactiveSpacecraftCache;
+import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking counterpart of {@code SpacecraftService}. Every method returns at once
+ * with a {@link Mono} or {@link Flux} that queries the database when subscribed, so no
+ * thread waits for it. Lookups by ID and name searches are cached in
+ * {@link ReactiveSpacecraftCache}, and every write is propagated to it. The streaming
+ * methods emit the spacecrafts as the subscriber requests them.
+ * <p>
+ * Queries are subscribed on the {@code databaseScheduler}. H2 runs in-process, so its
+ * R2DBC driver executes each statement on the thread that subscribes to it, and a
+ * connection released to the pool runs the next waiting query on the releasing thread.
+ * On a Netty event loop that chain would go on for as long as queries are waiting and
+ * starve the connections served by that loop.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Service
+public class ReactiveSpacecraftService {
+
+    static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    static final int MAX_PREFIX_RESULTS = 100;
+
+    private final ReactiveSpacecraftRepository spacecraftRepository;
+    private final ReactiveSpacecraftCache spacecraftCache;
+    private final Scheduler databaseScheduler;
+    private final Logger logger = LoggerFactory.getLogger(ReactiveSpacecraftService.class);
+
+    /**
+     * Constructs a new ReactiveSpacecraftService.
+     *
+     * @param spacecraftRepository the reactive spacecraft repository
+     * @param spacecraftCache the caches notified of every write
+     * @param databaseScheduler the scheduler the queries run on
+     */
+    public ReactiveSpacecraftService(ReactiveSpacecraftRepository spacecraftRepository,
+                                     ReactiveSpacecraftCache spacecraftCache, Scheduler databaseScheduler) {
+        this.spacecraftRepository = spacecraftRepository;
+        this.spacecraftCache = spacecraftCache;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    /**
+     * Retrieves all spacecrafts with pagination. The page and the total count are
+     * queried concurrently.
+     *
+     * @param pageable the pagination information
+     * @return a page of spacecrafts
+     */
+    public Mono<Page<Spacecraft>> getAllSpacecraft(Pageable pageable) {
+        return query(spacecraftRepository.findAllBy(pageable).collectList())
+                .zipWith(query(spacecraftRepository.count()),
+                        (content, total) -> new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Streams every spacecraft in ID order. Rows are read from the database as the
+     * subscriber requests them, so the whole table is never held in memory.
+     *
+     * @return all the spacecrafts
+     */
+    public Flux<Spacecraft> streamAllSpacecraft() {
+        return spacecraftRepository.findAllByOrderByIdAsc().subscribeOn(databaseScheduler);
+    }
+
+    /**
+     * Retrieves a page of spacecrafts using keyset pagination. The page starts right
+     * after the ID encoded in the cursor, so its cost does not grow with the depth of
+     * the page and no total count is computed.
+     *
+     * @param cursor the opaque cursor returned with the previous page, or blank for the first page
+     * @param size the maximum number of spacecrafts in the page
+     * @return the page of spacecrafts and the cursor of the next one
+     */
+    public Mono<CursorPage<Spacecraft>> getSpacecraftPage(String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE + ": " + size));
+        }
+        return Mono.fromCallable(() -> CursorPage.decode(cursor))
+                .flatMap(after -> query(spacecraftRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1))
+                        .collectList()))
+                .map(rows -> {
+                    if (rows.size() <= size) {
+                        return new CursorPage<>(rows, null);
+                    }
+                    List<Spacecraft> content = rows.subList(0, size);
+                    return new CursorPage<>(content, CursorPage.encode(content.get(size - 1).id()));
+                });
+    }
+
+    /**
+     * Retrieves a spacecraft by its ID, using caching to improve performance.
+     * Concurrent misses for the same ID share a single database load.
+     *
+     * @param id the ID of the spacecraft to retrieve
+     * @return the spacecraft, or an empty mono if not found
+     */
+    public Mono<Spacecraft> getSpacecraftById(Long id) {
+        if (id < 0) {
+            logger.debug("Attempted to fetch spacecraft with negative ID: {}", id);
+            return Mono.error(new NegativeIdException("El ID proporcionado no puede ser negativo: " + id));
+        }
+        return spacecraftCache.get(id, key -> query(spacecraftRepository.findById(key)));
+    }
+
+    /**
+     * Searches for spacecrafts by name, using caching to improve performance.
+     * Concurrent misses for the same name share a single search.
+     *
+     * @param name the name or partial name to search for
+     * @return the spacecrafts that contain the specified name
+     */
+    public Mono<List<Spacecraft>> searchSpacecraftByName(String name) {
+        return spacecraftCache.search(name, key -> query(spacecraftRepository.findByNameContaining(key).collectList()));
+    }
+
+    /**
+     * Streams the spacecrafts whose name contains the given string. Unlike
+     * {@link #searchSpacecraftByName(String)} the results are not cached, since they
+     * are never collected.
+     *
+     * @param name the name or partial name to search for
+     * @return the spacecrafts that contain the specified name
+     */
+    public Flux<Spacecraft> streamSpacecraftByName(String name) {
+        return spacecraftRepository.findByNameContaining(name).subscribeOn(databaseScheduler);
+    }
+
+    /**
+     * Finds spacecrafts whose name starts with the given prefix, ignoring case, as
+     * autocomplete does. The results are not cached.
+     *
+     * @param prefix the start of the names to find
+     * @param limit the maximum number of spacecrafts to return
+     * @return the spacecrafts whose name starts with the prefix, in name order
+     */
+    public Mono<List<Spacecraft>> searchSpacecraftByNamePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Prefix must not be blank"));
+        }
+        if (limit < 1 || limit > MAX_PREFIX_RESULTS) {
+            return Mono.error(new IllegalArgumentException(
+                    "Limit must be between 1 and " + MAX_PREFIX_RESULTS + ": " + limit));
+        }
+        String pattern = prefix.toLowerCase(Locale.ROOT).replaceAll("[\\\\%_]", "\\\\$0") + "%";
+        return query(spacecraftRepository.findByNamePrefix(pattern, limit).collectList());
+    }
+
+    /**
+     * Creates a new spacecraft in the system and writes it through to the caches.
+     * Its ID is taken from {@code spacecraft_seq}, like the ones of the MVC application.
+     *
+     * @param spacecraft the spacecraft to be created
+     * @return the created spacecraft
+     */
+    public Mono<Spacecraft> createSpacecraft(Spacecraft spacecraft) {
+        return query(spacecraftRepository.nextId()
+                .flatMap(id -> spacecraftRepository.save(
+                        new Spacecraft(id, spacecraft.name(), spacecraft.type(), spacecraft.origin(), null))))
+                .doOnNext(spacecraftCache::put);
+    }
+
+    /**
+     * Updates the details of an existing spacecraft and writes it through to the
+     * caches. The spacecraft is read and written in the same transaction.
+     *
+     * @param id the ID of the spacecraft to update
+     * @param spacecraft the new spacecraft data
+     * @return the updated spacecraft, or a {@link SpacecraftNotFoundException} if it does not exist
+     */
+    @Transactional
+    public Mono<Spacecraft> updateSpacecraft(Long id, Spacecraft spacecraft) {
+        return query(spacecraftRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound("update", id)))
+                .flatMap(ship -> spacecraftRepository.save(
+                        new Spacecraft(id, spacecraft.name(), spacecraft.type(), spacecraft.origin(), ship.version()))))
+                .doOnNext(spacecraftCache::put);
+    }
+
+    /**
+     * Deletes a spacecraft from the system by its ID and evicts it from the caches.
+     *
+     * @param id the ID of the spacecraft to delete
+     * @return completes when deleted, or with a {@link SpacecraftNotFoundException} if it does not exist
+     */
+    @Transactional
+    public Mono<Void> deleteSpacecraft(Long id) {
+        return query(spacecraftRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? spacecraftRepository.deleteById(id)
+                        : Mono.error(notFound("deletion", id))))
+                .doOnSuccess(done -> spacecraftCache.evict(id));
+    }
+
+    private <T> Mono<T> query(Mono<T> query) {
+        return query.subscribeOn(databaseScheduler);
+    }
+
+    private SpacecraftNotFoundException notFound(String operation, Long id) {
+        logger.debug("Spacecraft with ID {} not found for {}", id, operation);
+        return new SpacecraftNotFoundException(id);
+    }
+}
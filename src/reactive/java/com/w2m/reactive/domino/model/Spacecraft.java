@@ -0,0 +1,23 @@
+package com.w2m.reactive.domino.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Represents a spacecraft row of the {@code spacecraft} table as mapped by R2DBC. It is
+ * immutable and serializes to the same JSON as the JPA entity of the MVC application.
+ * Its version is incremented on every update and, as long as it is {@code null}, marks
+ * the spacecraft as not yet inserted.
+ *
+ * @param id the unique identifier of the spacecraft
+ * @param name the name of the spacecraft
+ * @param type the type of the spacecraft (e.g., Fighter, Transport)
+ * @param origin the origin of the spacecraft (e.g., Earth, Outer Space)
+ * @param version the version of the spacecraft
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Table("spacecraft")
+public record Spacecraft(@Id Long id, String name, String type, String origin, @Version Long version) {
+}
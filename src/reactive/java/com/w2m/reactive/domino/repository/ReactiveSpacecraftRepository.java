@@ -0,0 +1,77 @@
+package com.w2m.reactive.domino.repository;
+
+import com.w2m.reactive.domino.model.Spacecraft;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@code SpacecraftRepository}, over R2DBC. Every query returns
+ * a {@link Flux} or {@link Mono} that emits the rows as the driver reads them, so a
+ * subscriber that requests them slowly holds back the reads instead of buffering them.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+public interface ReactiveSpacecraftRepository extends ReactiveCrudRepository<Spacecraft, Long> {
+
+    /**
+     * Finds the spacecrafts of a page.
+     *
+     * @param pageable the pagination information
+     * @return the spacecrafts of the page
+     */
+    Flux<Spacecraft> findAllBy(Pageable pageable);
+
+    /**
+     * Finds every spacecraft, in ID order.
+     *
+     * @return all the spacecrafts
+     */
+    Flux<Spacecraft> findAllByOrderByIdAsc();
+
+    /**
+     * Finds the spacecrafts that come after the given ID, in ID order.
+     *
+     * @param id the ID after which the spacecrafts start
+     * @param limit the maximum number of spacecrafts to return
+     * @return the spacecrafts with a greater ID
+     */
+    Flux<Spacecraft> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Finds the spacecrafts whose name contains the given string. {@code %} and
+     * {@code _} in it are matched literally.
+     *
+     * @param name the string to search for
+     * @return the spacecrafts whose name contains the string
+     */
+    Flux<Spacecraft> findByNameContaining(String name);
+
+    /**
+     * Finds the spacecrafts whose lower-cased name matches the given {@code LIKE}
+     * pattern, in name order. The pattern is a lower-cased prefix, escaped with
+     * {@code \}, followed by {@code %}, so the query is a range scan of the index on
+     * {@code name_normalized}.
+     *
+     * @param pattern the pattern the lower-cased names must match
+     * @param limit the maximum number of spacecrafts to return
+     * @return the spacecrafts whose name starts with the prefix, ignoring case
+     */
+    @Query("SELECT id, name, type, origin, version FROM spacecraft WHERE name_normalized LIKE :pattern ESCAPE '\\'"
+            + " ORDER BY name_normalized, id LIMIT :limit")
+    Flux<Spacecraft> findByNamePrefix(String pattern, int limit);
+
+    /**
+     * Takes the next value of {@code spacecraft_seq}. The MVC application hands out the
+     * block of IDs ending at each value it takes, so a value taken here is never used
+     * there and both applications can insert into the same database.
+     *
+     * @return the ID for a new spacecraft
+     */
+    @Query("SELECT NEXT VALUE FOR spacecraft_seq")
+    Mono<Long> nextId();
+}
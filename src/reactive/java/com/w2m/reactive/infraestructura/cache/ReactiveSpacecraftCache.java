@@ -0,0 +1,104 @@
+package com.w2m.reactive.infraestructura.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.w2m.reactive.domino.model.Spacecraft;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code spacecraftById} and {@code spacecraftByName} caches of the reactive API,
+ * built on Caffeine's {@link AsyncCache} so a lookup never blocks the event loop.
+ * <p>
+ * Each entry holds the future of its load, so concurrent misses for the same key
+ * subscribe once to the repository and share the result. A load that completes empty
+ * or with an error is not kept. Writes go through to {@code spacecraftById} and clear
+ * {@code spacecraftByName}, whose result lists may no longer be complete.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Component
+public class ReactiveSpacecraftCache {
+
+    public static final String BY_ID = "spacecraftById";
+    public static final String BY_NAME = "spacecraftByName";
+
+    private final AsyncCache<Long, Spacecraft> byId;
+    private final AsyncCache<String, List<Spacecraft>> byName;
+
+    /**
+     * Constructs a new ReactiveSpacecraftCache and registers the statistics of both
+     * caches as {@code cache.*} metrics.
+     *
+     * @param byIdSpec the Caffeine spec of {@code spacecraftById}
+     * @param byNameSpec the Caffeine spec of {@code spacecraftByName}
+     * @param meterRegistry the registry of the cache metrics
+     */
+    public ReactiveSpacecraftCache(@Value("${spacecraft.cache.by-id.spec}") String byIdSpec,
+                                   @Value("${spacecraft.cache.by-name.spec}") String byNameSpec,
+                                   MeterRegistry meterRegistry) {
+        this.byId = Caffeine.from(byIdSpec).buildAsync();
+        this.byName = Caffeine.from(byNameSpec).buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, BY_ID);
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, BY_NAME);
+    }
+
+    /**
+     * Returns the cached spacecraft with the given ID, loading it on a miss.
+     *
+     * @param id the ID of the spacecraft
+     * @param loader loads the spacecraft, or completes empty if it does not exist
+     * @return the spacecraft, or an empty mono if it does not exist
+     */
+    public Mono<Spacecraft> get(Long id, Function<Long, Mono<Spacecraft>> loader) {
+        return lookup(byId, id, loader);
+    }
+
+    /**
+     * Returns the cached result of a name search, running it on a miss.
+     *
+     * @param name the searched name
+     * @param loader runs the search
+     * @return the spacecrafts found
+     */
+    public Mono<List<Spacecraft>> search(String name, Function<String, Mono<List<Spacecraft>>> loader) {
+        return lookup(byName, name, loader);
+    }
+
+    /**
+     * Writes a created or updated spacecraft into {@code spacecraftById} and clears
+     * {@code spacecraftByName}.
+     *
+     * @param spacecraft the persisted spacecraft
+     */
+    public void put(Spacecraft spacecraft) {
+        byId.put(spacecraft.id(), CompletableFuture.completedFuture(spacecraft));
+        byName.synchronous().invalidateAll();
+    }
+
+    /**
+     * Evicts a deleted spacecraft from {@code spacecraftById} and clears
+     * {@code spacecraftByName}.
+     *
+     * @param id the ID of the deleted spacecraft
+     */
+    public void evict(Long id) {
+        byId.synchronous().invalidate(id);
+        byName.synchronous().invalidateAll();
+    }
+
+    /**
+     * Subscribes to the shared future of the entry without cancelling it when the
+     * subscriber cancels, since other subscribers may be waiting for the same load.
+     */
+    private static <K, V> Mono<V> lookup(AsyncCache<K, V> cache, K key, Function<K, Mono<V>> loader) {
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+}
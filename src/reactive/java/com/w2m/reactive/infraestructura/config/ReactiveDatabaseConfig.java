@@ -0,0 +1,30 @@
+package com.w2m.reactive.infraestructura.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration class for the threads that run the R2DBC queries of the reactive API.
+ * <p>
+ * H2's R2DBC driver executes each statement synchronously, in-process, on the thread
+ * that subscribes to it, so the queries are moved off the Netty event loops onto a
+ * scheduler of their own, with one thread per CPU since the work they do is CPU-bound.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Configuration
+public class ReactiveDatabaseConfig {
+
+    /**
+     * Creates the scheduler the spacecraft queries are subscribed on.
+     *
+     * @return the scheduler, disposed with the application context
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler databaseScheduler() {
+        return Schedulers.newParallel("database", Runtime.getRuntime().availableProcessors(), true);
+    }
+}
@@ -0,0 +1,63 @@
+package com.w2m.reactive.infraestructura.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+/**
+ * Configuration class for the WebFlux server and controllers.
+ * <p>
+ * Tomcat is on the classpath for the MVC application, and Spring Boot would pick it
+ * for the reactive one too, so Reactor Netty is selected explicitly. Its event loops
+ * also accept the connections, unlike Tomcat's dedicated acceptor thread, so a burst
+ * of connections waits in the accept backlog, which is sized with
+ * {@code spacecraft.server.accept-backlog}: connections that do not fit are retried by
+ * the client after a backoff of seconds. Spring Boot also only resolves
+ * {@code Pageable} parameters for servlet applications, so the resolver is registered
+ * here, with the same page size bounds as the MVC API.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@Configuration
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private final int maxPageSize;
+
+    /**
+     * Constructs a new ReactiveWebConfig.
+     *
+     * @param maxPageSize the largest page size a request may ask for
+     */
+    public ReactiveWebConfig(@Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Serves the reactive API on Reactor Netty's event loops.
+     *
+     * @param acceptBacklog the maximum number of connections waiting to be accepted
+     * @return the web server factory
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            @Value("${spacecraft.server.accept-backlog:1024}") int acceptBacklog) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.option(ChannelOption.SO_BACKLOG, acceptBacklog));
+        return factory;
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageableResolver =
+                new ReactivePageableHandlerMethodArgumentResolver(new ReactiveSortHandlerMethodArgumentResolver());
+        pageableResolver.setMaxPageSize(maxPageSize);
+        configurer.addCustomResolver(pageableResolver);
+    }
+}
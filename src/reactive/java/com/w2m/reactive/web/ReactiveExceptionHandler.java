@@ -0,0 +1,42 @@
+package com.w2m.reactive.web;
+
+import com.w2m.app.application.exception.NegativeIdException;
+import com.w2m.reactive.application.exception.SpacecraftNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps the exceptions of the reactive API to the same statuses and plain-text bodies
+ * as the {@code GlobalExceptionHandler} of the MVC application.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    /**
+     * Handles {@link NegativeIdException} and {@link IllegalArgumentException}, which
+     * indicate an invalid argument was provided in the request.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} with the exception message and HTTP status 400 (Bad Request)
+     */
+    @ExceptionHandler({NegativeIdException.class, IllegalArgumentException.class})
+    public ResponseEntity<String> handleBadRequest(RuntimeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles {@link SpacecraftNotFoundException}.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} with the exception message and HTTP status 404 (Not Found)
+     */
+    @ExceptionHandler(SpacecraftNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(SpacecraftNotFoundException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,166 @@
+package com.w2m.reactive.web;
+
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.reactive.application.exception.SpacecraftNotFoundException;
+import com.w2m.reactive.application.service.ReactiveSpacecraftService;
+import com.w2m.reactive.domino.model.Spacecraft;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@code SpacecraftController}, with the same paths, parameters
+ * and JSON bodies. A request that accepts {@code application/x-ndjson} on the list or
+ * the name search gets the spacecrafts streamed one per line instead, written as the
+ * client reads them, so a slow client slows the database reads down rather than
+ * making the server buffer the whole result.
+ *
+ * @author Angel Lf Morante
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/spacecraft")
+public class ReactiveSpacecraftController {
+
+    private final ReactiveSpacecraftService service;
+
+    public ReactiveSpacecraftController(ReactiveSpacecraftService service) {
+        this.service = service;
+    }
+
+    /**
+     * Retrieves a paginated list of all spacecrafts.
+     *
+     * @param pageable Pageable object to apply pagination parameters
+     * @return the page of spacecrafts
+     */
+    @GetMapping
+    public Mono<Page<Spacecraft>> getAllSpacecrafts(Pageable pageable) {
+        return service.getAllSpacecraft(pageable);
+    }
+
+    /**
+     * Streams all spacecrafts in ID order, one JSON document per line.
+     *
+     * @return the spacecrafts
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Spacecraft> streamAllSpacecrafts() {
+        return service.streamAllSpacecraft();
+    }
+
+    /**
+     * Retrieves a page of spacecrafts using keyset pagination. This mode is selected
+     * when the {@code cursor} parameter is present (empty for the first page).
+     *
+     * @param cursor Opaque cursor returned with the previous page
+     * @param size Maximum number of spacecrafts in the page
+     * @return the page of spacecrafts and the cursor of the next one
+     */
+    @GetMapping(params = "cursor")
+    public Mono<CursorPage<Spacecraft>> getAllSpacecraftsByCursor(@RequestParam String cursor,
+                                                                 @RequestParam(defaultValue = "20") int size) {
+        return service.getSpacecraftPage(cursor, size);
+    }
+
+    /**
+     * Retrieves a spacecraft by its ID. The response carries an ETag, and a request
+     * whose {@code If-None-Match} matches it gets a 304 without body.
+     *
+     * @param id The ID of the spacecraft to be fetched
+     * @return the spacecraft details, or a 404 error if not found
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Spacecraft>> getSpacecraftById(@PathVariable Long id) {
+        return service.getSpacecraftById(id)
+                .map(spacecraft -> ResponseEntity.ok()
+                        .eTag("\"" + spacecraft.id() + "-" + spacecraft.version() + "\"")
+                        .body(spacecraft))
+                .switchIfEmpty(Mono.error(() -> new SpacecraftNotFoundException(id)));
+    }
+
+    /**
+     * Searches for spacecraft by their name.
+     *
+     * @param name Name (or part of name) to search for in spacecraft names
+     * @return the spacecraft matching the search criteria
+     */
+    @GetMapping("/find")
+    public Mono<List<Spacecraft>> searchSpacecraftByName(@RequestParam String name) {
+        return service.searchSpacecraftByName(name);
+    }
+
+    /**
+     * Streams the spacecraft whose name contains the given text, one JSON document per line.
+     *
+     * @param name Name (or part of name) to search for in spacecraft names
+     * @return the spacecraft matching the search criteria
+     */
+    @GetMapping(value = "/find", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Spacecraft> streamSpacecraftByName(@RequestParam String name) {
+        return service.streamSpacecraftByName(name);
+    }
+
+    /**
+     * Searches for spacecraft whose name starts with the given prefix, ignoring case.
+     * This mode is selected when the {@code prefix} parameter is present.
+     *
+     * @param prefix Start of the spacecraft names to search for
+     * @param limit Maximum number of spacecraft returned
+     * @return the matching spacecraft, in name order
+     */
+    @GetMapping(value = "/find", params = "prefix")
+    public Mono<List<Spacecraft>> searchSpacecraftByNamePrefix(@RequestParam String prefix,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        return service.searchSpacecraftByNamePrefix(prefix, limit);
+    }
+
+    /**
+     * Creates a new spacecraft in the system.
+     *
+     * @param spacecraft The spacecraft object to be created
+     * @return the created spacecraft, with a 201 status code
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Spacecraft>> saveSpacecraft(@RequestBody Spacecraft spacecraft) {
+        return service.createSpacecraft(spacecraft)
+                .map(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    /**
+     * Updates the details of an existing spacecraft.
+     *
+     * @param id The ID of the spacecraft to be updated
+     * @param spacecraft The updated spacecraft object
+     * @return the updated spacecraft details
+     */
+    @PutMapping("/{id}")
+    public Mono<Spacecraft> updateSpacecraft(@PathVariable Long id, @RequestBody Spacecraft spacecraft) {
+        return service.updateSpacecraft(id, spacecraft);
+    }
+
+    /**
+     * Deletes a spacecraft from the system.
+     *
+     * @param id The ID of the spacecraft to be deleted
+     * @return no content, with a 204 status code
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteSpacecraft(@PathVariable Long id) {
+        return service.deleteSpacecraft(id).thenReturn(ResponseEntity.noContent().build());
+    }
+}
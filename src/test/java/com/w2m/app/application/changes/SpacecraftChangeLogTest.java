@@ -0,0 +1,216 @@
+package com.w2m.app.application.changes;
+
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.dto.SpacecraftChange.Type;
+import com.w2m.app.application.exception.ChangeSequenceExpiredException;
+import com.w2m.app.domino.model.Spacecraft;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpacecraftChangeLogTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecordedChangesAreReadInOrder() {
+        SpacecraftChangeLog changeLog = changeLog(null, 8);
+        long start = changeLog.lastSequence();
+
+        changeLog.record(Type.CREATED, 1L, new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 0L));
+        changeLog.record(Type.UPDATED, 1L, new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 1L));
+        changeLog.record(Type.DELETED, 1L, null);
+
+        List<SpacecraftChange> changes = changeLog.readAfter(start, 10);
+        assertEquals(List.of(start + 1, start + 2, start + 3), changes.stream().map(SpacecraftChange::sequence).toList());
+        assertEquals(List.of(Type.CREATED, Type.UPDATED, Type.DELETED), changes.stream().map(SpacecraftChange::type).toList());
+        assertEquals("X-Wing Mk2", changes.get(1).spacecraft().getName());
+        assertNull(changes.get(2).spacecraft());
+        assertEquals(start + 3, changeLog.lastSequence());
+        assertEquals(List.of(changes.get(2)), changeLog.readAfter(start + 2, 10));
+        assertEquals(List.of(changes.get(0)), changeLog.readAfter(start, 1));
+        assertTrue(changeLog.readAfter(start + 3, 10).isEmpty());
+    }
+
+    @Test
+    void testInMemorySequenceStartsFromTheClock() {
+        long before = System.currentTimeMillis() * 1000;
+
+        long start = changeLog(null, 8).lastSequence();
+
+        assertTrue(start >= before);
+        assertTrue(start <= System.currentTimeMillis() * 1000);
+    }
+
+    @Test
+    void testSequenceNotIssuedIsRejected() {
+        SpacecraftChangeLog changeLog = changeLog(null, 8);
+
+        assertThrows(ChangeSequenceExpiredException.class, () -> changeLog.readAfter(changeLog.lastSequence() + 1, 10));
+        assertThrows(ChangeSequenceExpiredException.class, () -> changeLog.readAfter(changeLog.lastSequence() - 1, 10));
+    }
+
+    @Test
+    void testChangesOverwrittenInTheBufferAreExpired() {
+        SpacecraftChangeLog changeLog = changeLog(null, 3);
+        long start = changeLog.lastSequence();
+        for (long id = 1; id <= 5; id++) {
+            changeLog.record(Type.DELETED, id, null);
+        }
+
+        assertThrows(ChangeSequenceExpiredException.class, () -> changeLog.readAfter(start, 10));
+        assertEquals(List.of(2L, 3L, 4L, 5L), changeLog.readAfter(start + 1, 10).stream()
+                .map(SpacecraftChange::spacecraftId).toList());
+    }
+
+    @Test
+    void testPersistedLogResumesAndReadsBehindTheBufferFromTheStore() throws InterruptedException {
+        SpacecraftChangeStore store = mock(SpacecraftChangeStore.class);
+        when(store.lastSequence()).thenReturn(40L);
+        when(store.firstSequence()).thenReturn(1L);
+        List<SpacecraftChange> persisted = List.of(new SpacecraftChange(1L, Type.DELETED, 7L, null, Instant.now()));
+        when(store.readAfter(0L, 10)).thenReturn(persisted);
+        SpacecraftChangeLog changeLog = changeLog(store, 8);
+        CountDownLatch readable = new CountDownLatch(1);
+        changeLog.addListener(readable::countDown);
+
+        changeLog.record(Type.DELETED, 8L, null);
+
+        assertTrue(readable.await(1, TimeUnit.SECONDS));
+        verify(store).append(any(SpacecraftChange.class));
+        assertEquals(41L, changeLog.lastSequence());
+        assertEquals(8L, changeLog.readAfter(40L, 10).get(0).spacecraftId());
+        assertEquals(persisted, changeLog.readAfter(0L, 10));
+    }
+
+    @Test
+    void testChangesArePersistedInOrderWithoutHoldingTheLog() throws InterruptedException {
+        SpacecraftChangeStore store = mock(SpacecraftChangeStore.class);
+        when(store.lastSequence()).thenReturn(0L);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> persisted = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            release.await(1, TimeUnit.SECONDS);
+            persisted.add(invocation.<SpacecraftChange>getArgument(0).sequence());
+            return null;
+        }).when(store).append(any());
+        SpacecraftChangeLog changeLog = changeLog(store, 8);
+
+        changeLog.record(Type.DELETED, 1L, null);
+        changeLog.record(Type.DELETED, 2L, null);
+
+        assertTrue(changeLog.readAfter(0L, 10).isEmpty());
+        assertEquals(0L, changeLog.lastSequence());
+        release.countDown();
+        changeLog.shutdown();
+        assertEquals(List.of(1L, 2L), persisted);
+        assertEquals(2, changeLog.readAfter(0L, 10).size());
+    }
+
+    @Test
+    void testStoreFailureIsRetriedBeforeTheChangeIsRead() throws InterruptedException {
+        SpacecraftChangeStore store = mock(SpacecraftChangeStore.class);
+        AtomicBoolean failing = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (failing.get()) {
+                throw new IllegalStateException("disk full");
+            }
+            return null;
+        }).when(store).append(any());
+        SpacecraftChangeLog changeLog = changeLog(store, 8);
+        CountDownLatch readable = new CountDownLatch(1);
+        changeLog.addListener(readable::countDown);
+
+        changeLog.record(Type.DELETED, 1L, null);
+        changeLog.record(Type.DELETED, 2L, null);
+
+        verify(store, timeout(1000).times(2)).append(any());
+        assertTrue(changeLog.readAfter(0L, 10).isEmpty());
+        failing.set(false);
+        changeLog.shutdown();
+        assertEquals(List.of(1L, 2L), changeLog.readAfter(0L, 10).stream()
+                .map(SpacecraftChange::spacecraftId).toList());
+        assertEquals(0, readable.getCount());
+    }
+
+    @Test
+    void testChangeIsRecordedAfterCommitWithTheFlushedVersion() {
+        SpacecraftChangeLog changeLog = changeLog(null, 8);
+        long start = changeLog.lastSequence();
+        Spacecraft spacecraft = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 0L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        changeLog.record(Type.UPDATED, 1L, spacecraft);
+        spacecraft.setVersion(1L);
+
+        assertTrue(changeLog.readAfter(start, 10).isEmpty());
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1L, changeLog.readAfter(start, 10).get(0).spacecraft().getVersion());
+    }
+
+    @Test
+    void testChangeIsNotRecordedWithoutCommit() {
+        SpacecraftChangeLog changeLog = changeLog(null, 8);
+        long start = changeLog.lastSequence();
+        TransactionSynchronizationManager.initSynchronization();
+
+        changeLog.record(Type.DELETED, 1L, null);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(start, changeLog.lastSequence());
+    }
+
+    @Test
+    void testListenersAreNotifiedUntilRemoved() {
+        SpacecraftChangeLog changeLog = changeLog(null, 8);
+        AtomicInteger notifications = new AtomicInteger();
+        Runnable listener = notifications::incrementAndGet;
+        changeLog.addListener(listener);
+        changeLog.addListener(() -> {
+            throw new IllegalStateException("broken listener");
+        });
+
+        changeLog.record(Type.DELETED, 1L, null);
+        changeLog.removeListener(listener);
+        changeLog.record(Type.DELETED, 2L, null);
+
+        assertEquals(1, notifications.get());
+    }
+
+    @Test
+    void testInvalidBufferSize() {
+        assertThrows(IllegalArgumentException.class, () -> changeLog(null, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SpacecraftChangeLog changeLog(SpacecraftChangeStore store, int bufferSize) {
+        ObjectProvider<SpacecraftChangeStore> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(store);
+        return new SpacecraftChangeLog(provider, bufferSize);
+    }
+}
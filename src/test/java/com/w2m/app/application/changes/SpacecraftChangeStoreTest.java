@@ -0,0 +1,75 @@
+package com.w2m.app.application.changes;
+
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.dto.SpacecraftChange.Type;
+import com.w2m.app.domino.model.Spacecraft;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@JdbcTest(properties = {"spacecraft.changes.persist=true", "spacecraft.changes.persisted-max=10"})
+@Import(SpacecraftChangeStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SpacecraftChangeStoreTest {
+
+    @Autowired
+    private SpacecraftChangeStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM spacecraft_change");
+    }
+
+    @Test
+    void testEmptyStore() {
+        assertEquals(0L, store.firstSequence());
+        assertEquals(0L, store.lastSequence());
+    }
+
+    @Test
+    void testAppendedChangesAreReadBack() {
+        Instant timestamp = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        SpacecraftChange created = new SpacecraftChange(1L, Type.CREATED, 7L,
+                new Spacecraft(7L, "X-Wing", "Fighter", "Rebel Alliance", 0L), timestamp);
+        SpacecraftChange deleted = new SpacecraftChange(2L, Type.DELETED, 7L, null, timestamp);
+
+        store.append(created);
+        store.append(deleted);
+
+        List<SpacecraftChange> changes = store.readAfter(0L, 10);
+        assertEquals(2, changes.size());
+        assertEquals(Type.CREATED, changes.get(0).type());
+        assertEquals("X-Wing", changes.get(0).spacecraft().getName());
+        assertEquals(0L, changes.get(0).spacecraft().getVersion());
+        assertEquals(timestamp, changes.get(0).timestamp());
+        assertNull(changes.get(1).spacecraft());
+        assertEquals(List.of(2L), store.readAfter(1L, 10).stream().map(SpacecraftChange::sequence).toList());
+        assertEquals(1, store.readAfter(0L, 1).size());
+        assertEquals(1L, store.firstSequence());
+        assertEquals(2L, store.lastSequence());
+    }
+
+    @Test
+    void testOldChangesArePrunedEveryInterval() {
+        for (long sequence = SpacecraftChangeStore.PRUNE_INTERVAL - 20; sequence <= SpacecraftChangeStore.PRUNE_INTERVAL; sequence++) {
+            store.append(new SpacecraftChange(sequence, Type.DELETED, sequence, null, Instant.now()));
+        }
+
+        assertEquals(SpacecraftChangeStore.PRUNE_INTERVAL - 9L, store.firstSequence());
+        assertEquals(SpacecraftChangeStore.PRUNE_INTERVAL, store.lastSequence());
+    }
+}
@@ -0,0 +1,26 @@
+package com.w2m.app.application.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPageTest {
+
+    @Test
+    void testEncodeAndDecode() {
+        assertEquals(42L, CursorPage.decode(CursorPage.encode(42L)));
+    }
+
+    @Test
+    void testDecodeBlankCursorIsFirstPage() {
+        assertEquals(0L, CursorPage.decode(null));
+        assertEquals(0L, CursorPage.decode(""));
+    }
+
+    @Test
+    void testDecodeInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.decode("MTIz"));
+    }
+}
@@ -3,8 +3,10 @@ package com.w2m.app.application.exception;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,4 +67,31 @@ class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("Recurso no encontrado", response.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleChangeSequenceExpiredException() {
+        ChangeSequenceExpiredException ex = new ChangeSequenceExpiredException("Changes after sequence 5 are no longer kept");
+        ResponseEntity<String> response = globalExceptionHandler.handleChangeSequenceExpiredException(ex);
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals("Changes after sequence 5 are no longer kept", response.getBody());
+    }
+
+    @Test
+    void testHandleOptimisticLockingFailureException() {
+        OptimisticLockingFailureException ex = new OptimisticLockingFailureException("Spacecraft 1 has been modified");
+        ResponseEntity<String> response = globalExceptionHandler.handleOptimisticLockingFailureException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Spacecraft 1 has been modified", response.getBody());
+    }
+
+    @Test
+    void testHandleHttpMediaTypeNotAcceptableException() {
+        HttpMediaTypeNotAcceptableException ex = new HttpMediaTypeNotAcceptableException("No acceptable representation");
+        ResponseEntity<Void> response = globalExceptionHandler.handleHttpMediaTypeNotAcceptableException(ex);
+
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+}
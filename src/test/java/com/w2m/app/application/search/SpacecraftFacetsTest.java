@@ -0,0 +1,85 @@
+package com.w2m.app.application.search;
+
+import com.w2m.app.application.dto.SpacecraftFacetCounts;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpacecraftFacetsTest {
+
+    private SpacecraftFacets facets;
+
+    @BeforeEach
+    void setUp() {
+        SpacecraftRepository spacecraftRepository = mock(SpacecraftRepository.class);
+        when(spacecraftRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(
+                new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance"),
+                new Spacecraft(2L, "TIE Fighter", "Fighter", "Galactic Empire"),
+                new Spacecraft(3L, "Star Destroyer", "Capital Ship", "Galactic Empire")));
+        facets = new SpacecraftFacets(spacecraftRepository);
+        facets.load();
+    }
+
+    @Test
+    void testCountsEverySpacecraftWithoutFilters() {
+        SpacecraftFacetCounts counts = facets.count(null, null);
+
+        assertEquals(3, counts.total());
+        assertEquals(Map.of("Fighter", 2L, "Capital Ship", 1L), counts.types());
+        assertEquals(List.of("Fighter", "Capital Ship"), List.copyOf(counts.types().keySet()));
+        assertEquals(Map.of("Galactic Empire", 2L, "Rebel Alliance", 1L), counts.origins());
+    }
+
+    @Test
+    void testEachFacetIsFilteredByTheOtherOne() {
+        SpacecraftFacetCounts counts = facets.count("Fighter", "Galactic Empire");
+
+        assertEquals(1, counts.total());
+        assertEquals(Map.of("Fighter", 1L, "Capital Ship", 1L), counts.types());
+        assertEquals(Map.of("Galactic Empire", 1L, "Rebel Alliance", 1L), counts.origins());
+    }
+
+    @Test
+    void testOlderWriteDoesNotReplaceNewerOne() {
+        facets.index(new Spacecraft(4L, "A-Wing", "Bomber", "Rebel Alliance", 2L));
+        facets.index(new Spacecraft(4L, "A-Wing", "Fighter", "Rebel Alliance", 1L));
+
+        assertEquals(Map.of("Fighter", 2L, "Capital Ship", 1L, "Bomber", 1L), facets.count(null, null).types());
+    }
+
+    @Test
+    void testWriteAppliedAfterRemoveIsIgnored() {
+        facets.remove(3L);
+        facets.index(new Spacecraft(3L, "Star Destroyer", "Capital Ship", "Galactic Empire", 1L));
+
+        SpacecraftFacetCounts counts = facets.count(null, null);
+
+        assertEquals(2, counts.total());
+        assertEquals(Map.of("Fighter", 2L), counts.types());
+    }
+
+    @Test
+    void testWritesUpdateTheCounts() {
+        facets.index(new Spacecraft(1L, "X-Wing", "Bomber", "Rebel Alliance"));
+        facets.index(new Spacecraft(4L, "A-Wing", "Fighter", "Rebel Alliance"));
+        facets.index(new Spacecraft(4L, "A-Wing Mk2", "Fighter", "Rebel Alliance"));
+        facets.remove(3L);
+        facets.remove(99L);
+
+        SpacecraftFacetCounts counts = facets.count(null, null);
+
+        assertEquals(3, counts.total());
+        assertEquals(Map.of("Fighter", 2L, "Bomber", 1L), counts.types());
+        assertEquals(Map.of("Rebel Alliance", 2L, "Galactic Empire", 1L), counts.origins());
+    }
+}
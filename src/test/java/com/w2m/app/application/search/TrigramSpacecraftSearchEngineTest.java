@@ -0,0 +1,106 @@
+package com.w2m.app.application.search;
+
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramSpacecraftSearchEngineTest {
+
+    @Mock
+    private SpacecraftRepository spacecraftRepository;
+
+    private TrigramSpacecraftSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        when(spacecraftRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(
+                new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance"),
+                new Spacecraft(2L, "TIE Fighter", "Fighter", "Galactic Empire"),
+                new Spacecraft(3L, "Millennium Falcon", "Freighter", "Rebel Alliance"),
+                new Spacecraft(4L, "Y-Wing", "Bomber", "Rebel Alliance")));
+        searchEngine = new TrigramSpacecraftSearchEngine(spacecraftRepository);
+        searchEngine.load();
+    }
+
+    @Test
+    void testLoad() {
+        assertEquals(4, searchEngine.size());
+    }
+
+    @Test
+    void testSearchSubstring() {
+        List<Spacecraft> result = searchEngine.search("Wing");
+
+        assertEquals(List.of(1L, 4L), result.stream().map(Spacecraft::getId).toList());
+        verifyNoMoreInteractions(spacecraftRepository);
+    }
+
+    @Test
+    void testSearchIsCaseSensitive() {
+        assertTrue(searchEngine.search("wing").isEmpty());
+    }
+
+    @Test
+    void testSearchShortQueryScansDocuments() {
+        List<Spacecraft> result = searchEngine.search("F");
+
+        assertEquals(List.of(2L, 3L), result.stream().map(Spacecraft::getId).toList());
+    }
+
+    @Test
+    void testOlderWriteDoesNotReplaceNewerOne() {
+        searchEngine.index(new Spacecraft(5L, "A-Wing Mk3", "Fighter", "Rebel Alliance", 2L));
+        searchEngine.index(new Spacecraft(5L, "A-Wing Mk2", "Fighter", "Rebel Alliance", 1L));
+
+        assertEquals(List.of("A-Wing Mk3"), searchEngine.search("A-Wing").stream().map(Spacecraft::getName).toList());
+    }
+
+    @Test
+    void testWriteAppliedAfterRemoveIsIgnored() {
+        searchEngine.remove(1L);
+        searchEngine.index(new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 1L));
+
+        assertEquals(List.of(4L), searchEngine.search("Wing").stream().map(Spacecraft::getId).toList());
+        assertEquals(3, searchEngine.size());
+    }
+
+    @Test
+    void testSearchVerifiesCandidates() {
+        // Every gram of "Star Destroyer" occurs in the name, but not contiguously.
+        searchEngine.index(new Spacecraft(5L, "Star Stroyer Destroyer", "Capital Ship", "Galactic Empire"));
+
+        assertTrue(searchEngine.search("Star Destroyer").isEmpty());
+        assertEquals(5L, searchEngine.search("Stroyer Destroyer").get(0).getId());
+    }
+
+    @Test
+    void testIndexReplacesPreviousName() {
+        searchEngine.index(new Spacecraft(1L, "A-Wing", "Interceptor", "Rebel Alliance"));
+
+        assertTrue(searchEngine.search("X-Wing").isEmpty());
+        assertEquals(1L, searchEngine.search("A-Wing").get(0).getId());
+        assertEquals(4, searchEngine.size());
+    }
+
+    @Test
+    void testRemove() {
+        searchEngine.remove(2L);
+
+        assertTrue(searchEngine.search("TIE").isEmpty());
+        assertEquals(3, searchEngine.size());
+    }
+}
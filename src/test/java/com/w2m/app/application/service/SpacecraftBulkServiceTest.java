@@ -0,0 +1,172 @@
+package com.w2m.app.application.service;
+
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.dto.BulkItemResult;
+import com.w2m.app.application.dto.BulkItemResult.Status;
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.SpacecraftSearchEngine;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SpacecraftBulkServiceTest {
+
+    @Mock
+    private SpacecraftRepository spacecraftRepository;
+
+    @Mock
+    private SpacecraftSearchEngine searchEngine;
+
+    @Mock
+    private SpacecraftCache spacecraftCache;
+
+    @Mock
+    private SpacecraftFacets facets;
+
+    @Mock
+    private SpacecraftChangeLog changeLog;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong sequence = new AtomicLong(1000);
+
+    private SpacecraftBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Spacecraft>getArgument(0).setId(sequence.getAndIncrement());
+            return null;
+        }).when(entityManager).persist(any(Spacecraft.class));
+        bulkService = new SpacecraftBulkService(
+                spacecraftRepository, searchEngine, spacecraftCache, facets, changeLog, entityManager, transactionTemplate, 2);
+    }
+
+    @Test
+    void testUpsertAllCreatesAndUpdates() {
+        Spacecraft existing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance");
+        when(spacecraftRepository.findAllById(List.of(1L))).thenReturn(List.of(existing));
+
+        List<BulkItemResult> results = bulkService.upsertAll(List.of(
+                new Spacecraft(null, "A-Wing", "Interceptor", "Rebel Alliance"),
+                new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance"),
+                new Spacecraft(null, "B-Wing", "Bomber", "Rebel Alliance")).iterator());
+
+        assertEquals(List.of(
+                BulkItemResult.success(0, 1000L, Status.CREATED),
+                BulkItemResult.success(1, 1L, Status.UPDATED),
+                BulkItemResult.success(2, 1001L, Status.CREATED)), results);
+        assertEquals("X-Wing Mk2", existing.getName());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(searchEngine, times(3)).index(any(Spacecraft.class));
+        verify(facets, times(3)).index(any(Spacecraft.class));
+        verify(spacecraftCache, times(2)).putAll(anyList());
+        verify(changeLog).record(eq(SpacecraftChange.Type.CREATED), eq(1000L), any(Spacecraft.class));
+        verify(changeLog).record(SpacecraftChange.Type.UPDATED, 1L, existing);
+        verify(changeLog).record(eq(SpacecraftChange.Type.CREATED), eq(1001L), any(Spacecraft.class));
+    }
+
+    @Test
+    void testUpsertAllReportsFailedItems() {
+        when(spacecraftRepository.findAllById(List.of(7L))).thenReturn(List.of());
+
+        List<BulkItemResult> results = bulkService.upsertAll(List.of(
+                new Spacecraft(7L, "Ghost", "Freighter", "Rebel Alliance"),
+                new Spacecraft(null, null, "Fighter", "Rebel Alliance")).iterator());
+
+        assertEquals(Status.FAILED, results.get(0).status());
+        assertEquals("Spacecraft not found with id: 7", results.get(0).error());
+        assertEquals(Status.FAILED, results.get(1).status());
+        assertNotNull(results.get(1).error());
+    }
+
+    @Test
+    void testUpsertAllReportsStaleVersionsAsConflicts() {
+        Spacecraft first = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 3L);
+        Spacecraft second = new Spacecraft(2L, "Y-Wing", "Bomber", "Rebel Alliance", 5L);
+        when(spacecraftRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        List<BulkItemResult> results = bulkService.upsertAll(List.of(
+                new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 2L),
+                new Spacecraft(2L, "Y-Wing Mk2", "Bomber", "Rebel Alliance", 5L)).iterator());
+
+        assertEquals(Status.CONFLICT, results.get(0).status());
+        assertEquals("Spacecraft 1 no longer has version 2", results.get(0).error());
+        assertEquals("X-Wing", first.getName());
+        assertEquals(BulkItemResult.success(1, 2L, Status.UPDATED), results.get(1));
+        verify(changeLog, times(1)).record(SpacecraftChange.Type.UPDATED, 2L, second);
+    }
+
+    @Test
+    void testUpsertAllReportsConcurrentUpdatesAsConflicts() {
+        when(spacecraftRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 3L)));
+        doThrow(new OptimisticLockException("stale")).when(entityManager).flush();
+
+        List<BulkItemResult> results = bulkService.upsertAll(List.of(
+                new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance")).iterator());
+
+        assertEquals(Status.CONFLICT, results.get(0).status());
+        verify(changeLog, times(0)).record(any(), any(), any());
+    }
+
+    @Test
+    void testUpsertAllRetriesFailedChunkItemByItem() {
+        doThrow(new PersistenceException("duplicate"))
+                .doThrow(new PersistenceException("duplicate"))
+                .doNothing()
+                .when(entityManager).flush();
+
+        List<BulkItemResult> results = bulkService.upsertAll(List.of(
+                new Spacecraft(null, "A-Wing", "Interceptor", "Rebel Alliance"),
+                new Spacecraft(null, "B-Wing", "Bomber", "Rebel Alliance")).iterator());
+
+        assertEquals(Status.FAILED, results.get(0).status());
+        assertEquals("duplicate", results.get(0).error());
+        assertEquals(Status.CREATED, results.get(1).status());
+        verify(searchEngine, times(1)).index(any(Spacecraft.class));
+        verify(changeLog, times(1)).record(any(), any(), any());
+    }
+
+    @Test
+    void testInvalidChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SpacecraftBulkService(
+                spacecraftRepository, searchEngine, spacecraftCache, facets, changeLog, entityManager, transactionTemplate, 0));
+    }
+}
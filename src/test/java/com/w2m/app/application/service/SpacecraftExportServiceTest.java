@@ -0,0 +1,64 @@
+package com.w2m.app.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpacecraftExportServiceTest {
+
+    @Mock
+    private SpacecraftRepository spacecraftRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SpacecraftExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new SpacecraftExportService(spacecraftRepository, entityManager, new ObjectMapper());
+    }
+
+    @Test
+    void testExportAllWritesOneLinePerSpacecraft() throws Exception {
+        Spacecraft xWing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance");
+        Spacecraft tie = new Spacecraft(2L, "TIE Fighter", "Fighter", "Galactic Empire");
+        when(spacecraftRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(xWing, tie));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportAll(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"name\":\"X-Wing\""));
+        assertTrue(lines[1].startsWith("{\"id\":2,\"name\":\"TIE Fighter\""));
+        verify(entityManager, times(1)).detach(xWing);
+        verify(entityManager, times(1)).detach(tie);
+    }
+
+    @Test
+    void testExportAllEmptyCatalog() throws Exception {
+        when(spacecraftRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportAll(out));
+        assertEquals(0, out.size());
+    }
+}
@@ -1,24 +1,47 @@
 package com.w2m.app.application.service;
 
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.app.application.dto.SpacecraftChange;
+import com.w2m.app.application.dto.SpacecraftFacetCounts;
 import com.w2m.app.application.exception.NegativeIdException;
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.SpacecraftSearchEngine;
+import com.w2m.app.application.search.TrigramSpacecraftSearchEngine;
 import com.w2m.app.domino.model.Spacecraft;
 import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.infraestructura.cache.OffHeapSpacecraftStore;
+import com.w2m.app.infraestructura.cache.SingleFlight;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +50,21 @@ class SpacecraftServiceTest {
     @Mock
     private SpacecraftRepository spacecraftRepository;
 
+    @Mock
+    private SpacecraftSearchEngine searchEngine;
+
+    @Mock
+    private SpacecraftCache spacecraftCache;
+
+    @Mock
+    private SpacecraftFacets facets;
+
+    @Mock
+    private SpacecraftChangeLog changeLog;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
     @InjectMocks
     private SpacecraftService spacecraftService;
 
@@ -40,17 +78,47 @@ class SpacecraftServiceTest {
     @Test
     void testGetAllSpacecraft() {
         Page<Spacecraft> spacecraftPage = new PageImpl<>(Arrays.asList(spacecraft));
-        when(spacecraftRepository.findAll(any(Pageable.class))).thenReturn(spacecraftPage);
+        when(spacecraftRepository.findAllDetached(any(Pageable.class))).thenReturn(spacecraftPage);
 
         Page<Spacecraft> result = spacecraftService.getAllSpacecraft(mock(Pageable.class));
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(spacecraftRepository, times(1)).findAll(any(Pageable.class));
+        verify(spacecraftRepository, times(1)).findAllDetached(any(Pageable.class));
+    }
+
+    @Test
+    void testGetSpacecraftPageWithNextPage() {
+        Spacecraft second = new Spacecraft(2L, "Voyager", "Explorer", "Earth");
+        when(spacecraftRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(spacecraft, second));
+
+        CursorPage<Spacecraft> result = spacecraftService.getSpacecraftPage("", 1);
+
+        assertEquals(List.of(spacecraft), result.content());
+        assertEquals(1L, CursorPage.decode(result.nextCursor()));
+    }
+
+    @Test
+    void testGetSpacecraftPageLastPage() {
+        when(spacecraftRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(3)))
+                .thenReturn(List.of(new Spacecraft(2L, "Voyager", "Explorer", "Earth")));
+
+        CursorPage<Spacecraft> result = spacecraftService.getSpacecraftPage(CursorPage.encode(1L), 2);
+
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void testGetSpacecraftPageInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> spacecraftService.getSpacecraftPage("", 0));
+        verify(spacecraftRepository, times(0)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
     }
 
     @Test
     void testGetSpacecraftById() {
+        when(spacecraftCache.idGeneration(1L)).thenReturn(7L);
         when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(spacecraft));
 
         Optional<Spacecraft> result = spacecraftService.getSpacecraftById(1L);
@@ -58,6 +126,33 @@ class SpacecraftServiceTest {
         assertTrue(result.isPresent());
         assertEquals(spacecraft, result.get());
         verify(spacecraftRepository, times(1)).findById(1L);
+        verify(singleFlight).load(eq(SpacecraftCache.BY_ID), eq(1L), any());
+        verify(spacecraftCache).putLoaded(spacecraft, 7L);
+    }
+
+    @Test
+    void testGetSpacecraftByIdCachedSkipsDatabase() {
+        when(spacecraftCache.get(1L)).thenReturn(spacecraft);
+
+        assertEquals(Optional.of(spacecraft), spacecraftService.getSpacecraftById(1L));
+        verify(spacecraftRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGetSpacecraftByIdNotFoundIsMarkedMissing() {
+        when(spacecraftCache.idGeneration(2L)).thenReturn(7L);
+        when(spacecraftRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(spacecraftService.getSpacecraftById(2L).isEmpty());
+        verify(spacecraftCache).markMissing(2L, 7L);
+    }
+
+    @Test
+    void testGetSpacecraftByIdKnownMissingSkipsDatabase() {
+        when(spacecraftCache.isMissing(2L)).thenReturn(true);
+
+        assertTrue(spacecraftService.getSpacecraftById(2L).isEmpty());
+        verify(spacecraftRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -66,15 +161,96 @@ class SpacecraftServiceTest {
         verify(spacecraftRepository, times(0)).findById(anyLong());
     }
 
+    @Test
+    void testGetSpacecraftsByIdsLoadsOnlyMisses() {
+        Spacecraft second = new Spacecraft(2L, "Voyager", "Explorer", "Earth");
+        when(spacecraftCache.getAllPresent(Set.of(1L, 2L, 3L, 4L))).thenReturn(Map.of(1L, spacecraft));
+        when(spacecraftCache.isMissing(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(4L));
+        when(spacecraftCache.idGeneration(anyLong())).thenAnswer(invocation -> invocation.getArgument(0, Long.class) * 10);
+        when(spacecraftRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(second));
+
+        List<Spacecraft> result = spacecraftService.getSpacecraftsByIds(List.of(2L, 1L, 3L, 4L, 2L));
+
+        assertEquals(List.of(second, spacecraft), result);
+        verify(spacecraftCache).putLoaded(List.of(second), Map.of(2L, 20L, 3L, 30L));
+        verify(spacecraftCache).markMissing(3L, 30L);
+        verify(spacecraftCache, never()).markMissing(eq(4L), anyLong());
+    }
+
+    @Test
+    void testGetSpacecraftsByIdsAllCached() {
+        when(spacecraftCache.getAllPresent(Set.of(1L))).thenReturn(Map.of(1L, spacecraft));
+
+        assertEquals(List.of(spacecraft), spacecraftService.getSpacecraftsByIds(List.of(1L)));
+        verify(spacecraftRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testGetSpacecraftsByIdsRejectsNegativeId() {
+        assertThrows(NegativeIdException.class, () -> spacecraftService.getSpacecraftsByIds(List.of(1L, -1L)));
+        verify(spacecraftRepository, never()).findAllById(any());
+    }
+
     @Test
     void testSearchSpacecraftByName() {
-        when(spacecraftRepository.findByNameContaining("Enterprise")).thenReturn(Arrays.asList(spacecraft));
+        when(spacecraftCache.getSearch("Enterprise")).thenReturn(null);
+        when(searchEngine.search("Enterprise")).thenReturn(Arrays.asList(spacecraft));
 
         var result = spacecraftService.searchSpacecraftByName("Enterprise");
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        verify(spacecraftRepository, times(1)).findByNameContaining("Enterprise");
+        verify(searchEngine, times(1)).search("Enterprise");
+        verify(singleFlight).load(eq(SpacecraftCache.BY_NAME), eq("Enterprise"), any());
+        verify(spacecraftCache).putSearch("Enterprise", result, 0L);
+    }
+
+    @Test
+    void testSearchSpacecraftByNameCachedSkipsSearch() {
+        when(spacecraftCache.getSearch("Enterprise")).thenReturn(List.of(spacecraft));
+
+        assertEquals(List.of(spacecraft), spacecraftService.searchSpacecraftByName("Enterprise"));
+        verifyNoInteractions(searchEngine);
+    }
+
+    @Test
+    void testSearchSpacecraftByNamePrefixLowerCasesPrefix() {
+        when(spacecraftRepository.findByNamePrefix("ent", Limit.of(5))).thenReturn(List.of(spacecraft));
+
+        var result = spacecraftService.searchSpacecraftByNamePrefix("EnT", 5);
+
+        assertEquals(List.of(spacecraft), result);
+        verifyNoInteractions(searchEngine, spacecraftCache);
+    }
+
+    @Test
+    void testSearchSpacecraftByNamePrefixInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> spacecraftService.searchSpacecraftByNamePrefix(" ", 5));
+        assertThrows(IllegalArgumentException.class, () -> spacecraftService.searchSpacecraftByNamePrefix("En", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> spacecraftService.searchSpacecraftByNamePrefix("En", SpacecraftService.MAX_PREFIX_RESULTS + 1));
+        verifyNoInteractions(spacecraftRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFilterSpacecraft() {
+        Page<Spacecraft> page = new PageImpl<>(List.of(spacecraft));
+        when(spacecraftRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+
+        Page<Spacecraft> result = spacecraftService.filterSpacecraft("Fighter", " ", null, Pageable.unpaged());
+
+        assertEquals(page, result);
+        verify(spacecraftRepository, times(1)).findAll(any(Specification.class), eq(Pageable.unpaged()));
+    }
+
+    @Test
+    void testGetSpacecraftFacetsTreatsBlankAsNoFilter() {
+        SpacecraftFacetCounts counts = new SpacecraftFacetCounts(1, Map.of("Fighter", 1L), Map.of("Earth", 1L));
+        when(facets.count(null, "Earth")).thenReturn(counts);
+
+        assertEquals(counts, spacecraftService.getSpacecraftFacets("", "Earth"));
+        verifyNoInteractions(spacecraftRepository);
     }
 
     @Test
@@ -86,20 +262,88 @@ class SpacecraftServiceTest {
         assertNotNull(result);
         assertEquals("Enterprise", result.getName());
         verify(spacecraftRepository, times(1)).save(any(Spacecraft.class));
+        verify(searchEngine, times(1)).index(spacecraft);
+        verify(facets, times(1)).index(spacecraft);
+        verify(spacecraftCache, times(1)).put(spacecraft);
+        verify(changeLog, times(1)).record(SpacecraftChange.Type.CREATED, 1L, spacecraft);
+    }
+
+    @Test
+    void testUpdateSpacecraftPropagatesOnlyOnceCommitted() {
+        Spacecraft updatedSpacecraft = new Spacecraft(1L, "Discovery", "Explorer", "Mars");
+        when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(spacecraft));
+        when(spacecraftRepository.saveAndFlush(any(Spacecraft.class))).thenReturn(updatedSpacecraft);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            spacecraftService.updateSpacecraft(1L, updatedSpacecraft);
+
+            verifyNoInteractions(searchEngine, facets, spacecraftCache);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(searchEngine).index(updatedSpacecraft);
+        verify(facets).index(updatedSpacecraft);
+        verify(spacecraftCache).put(updatedSpacecraft);
+    }
+
+    @Test
+    void testUpdateCommittedBeforeADeleteButAppliedAfterItIsDropped() {
+        TrigramSpacecraftSearchEngine index = new TrigramSpacecraftSearchEngine(spacecraftRepository);
+        SpacecraftFacets counts = new SpacecraftFacets(spacecraftRepository);
+        SpacecraftCache cache = new SpacecraftCache(new CaffeineCacheManager(SpacecraftCache.BY_ID,
+                SpacecraftCache.BY_NAME, SpacecraftCache.BY_ID_MISSING), new OffHeapSpacecraftStore(4096, 16));
+        SpacecraftService service = new SpacecraftService(spacecraftRepository, index, cache, singleFlight, counts, changeLog);
+        spacecraft.setVersion(0L);
+        index.index(spacecraft);
+        counts.index(spacecraft);
+        Spacecraft updatedSpacecraft = new Spacecraft(1L, "Discovery", "Explorer", "Mars", 1L);
+        when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(spacecraft));
+        when(spacecraftRepository.saveAndFlush(any(Spacecraft.class))).thenReturn(updatedSpacecraft);
+        when(spacecraftRepository.deleteAllByIdIn(List.of(1L))).thenReturn(1);
+
+        List<TransactionSynchronization> update = inTransaction(() -> service.updateSpacecraft(1L, updatedSpacecraft));
+        List<TransactionSynchronization> delete = inTransaction(() -> service.deleteSpacecraft(1L));
+        delete.forEach(TransactionSynchronization::afterCommit);
+        update.forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(index.search("Disc").isEmpty());
+        assertEquals(0, counts.count(null, null).total());
+        assertNull(cache.get(1L));
+        assertTrue(cache.isMissing(1L));
+    }
+
+    @Test
+    void testDeleteSpacecraftRolledBackLeavesCachesUntouched() {
+        when(spacecraftRepository.deleteAllByIdIn(List.of(1L))).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            spacecraftService.deleteSpacecraft(1L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verifyNoInteractions(searchEngine, facets, spacecraftCache);
     }
 
     @Test
     void testUpdateSpacecraft() {
         Spacecraft updatedSpacecraft = new Spacecraft(1L, "Discovery", "Explorer", "Mars");
         when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(spacecraft));
-        when(spacecraftRepository.save(any(Spacecraft.class))).thenReturn(updatedSpacecraft);
+        when(spacecraftRepository.saveAndFlush(any(Spacecraft.class))).thenReturn(updatedSpacecraft);
 
         Spacecraft result = spacecraftService.updateSpacecraft(1L, updatedSpacecraft);
 
         assertNotNull(result);
         assertEquals("Discovery", result.getName());
         verify(spacecraftRepository, times(1)).findById(1L);
-        verify(spacecraftRepository, times(1)).save(any(Spacecraft.class));
+        verify(spacecraftRepository, times(1)).saveAndFlush(any(Spacecraft.class));
+        verify(searchEngine, times(1)).index(updatedSpacecraft);
+        verify(facets, times(1)).index(updatedSpacecraft);
+        verify(spacecraftCache, times(1)).put(updatedSpacecraft);
+        verify(changeLog, times(1)).record(SpacecraftChange.Type.UPDATED, 1L, updatedSpacecraft);
     }
 
     @Test
@@ -112,19 +356,124 @@ class SpacecraftServiceTest {
     }
 
     @Test
-    void testDeleteSpacecraft() {
+    void testUpdateSpacecraftWithStaleVersionConflicts() {
+        Spacecraft current = new Spacecraft(1L, "Enterprise", "Fighter", "Earth", 4L);
+        when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> spacecraftService.updateSpacecraft(1L, new Spacecraft(1L, "Discovery", "Explorer", "Mars"), 3L));
+        verify(spacecraftRepository, never()).saveAndFlush(any(Spacecraft.class));
+        verifyNoInteractions(spacecraftCache, searchEngine, facets, changeLog);
+    }
+
+    @Test
+    void testPatchSpacecraft() {
+        Spacecraft patched = new Spacecraft(1L, "Discovery", "Fighter", "Earth", 4L);
+        when(spacecraftRepository.updateIfVersion(1L, "Discovery", null, null, 3L)).thenReturn(Optional.of(patched));
+
+        Spacecraft result = spacecraftService.patchSpacecraft(1L, new Spacecraft(null, "Discovery", null, null), 3L);
+
+        assertSame(patched, result);
+        verify(spacecraftRepository, never()).findById(anyLong());
+        verify(searchEngine, times(1)).index(patched);
+        verify(facets, times(1)).index(patched);
+        verify(spacecraftCache, times(1)).put(patched);
+        verify(changeLog, times(1)).record(SpacecraftChange.Type.UPDATED, 1L, patched);
+    }
+
+    @Test
+    void testPatchSpacecraftWithStaleVersionConflicts() {
+        when(spacecraftRepository.updateIfVersion(1L, "Discovery", null, null, 3L)).thenReturn(Optional.empty());
         when(spacecraftRepository.existsById(1L)).thenReturn(true);
 
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> spacecraftService.patchSpacecraft(1L, new Spacecraft(null, "Discovery", null, null), 3L));
+        verifyNoInteractions(spacecraftCache, searchEngine, facets, changeLog);
+    }
+
+    @Test
+    void testPatchSpacecraftNotFound() {
+        when(spacecraftRepository.updateIfVersion(1L, "Discovery", null, null, 3L)).thenReturn(Optional.empty());
+        when(spacecraftRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> spacecraftService.patchSpacecraft(1L, new Spacecraft(null, "Discovery", null, null), 3L));
+    }
+
+    @Test
+    void testPatchSpacecraftWithoutChanges() {
+        assertThrows(IllegalArgumentException.class,
+                () -> spacecraftService.patchSpacecraft(1L, new Spacecraft(), 3L));
+        verifyNoInteractions(spacecraftRepository);
+    }
+
+    @Test
+    void testDeleteSpacecraft() {
+        when(spacecraftRepository.deleteAllByIdIn(List.of(1L))).thenReturn(1);
+
         spacecraftService.deleteSpacecraft(1L);
 
-        verify(spacecraftRepository, times(1)).deleteById(1L);
+        verify(spacecraftRepository, never()).existsById(anyLong());
+        verify(searchEngine, times(1)).remove(1L);
+        verify(facets, times(1)).remove(1L);
+        verify(spacecraftCache, times(1)).evict(1L);
+        verify(changeLog, times(1)).record(SpacecraftChange.Type.DELETED, 1L, null);
     }
 
     @Test
     void testDeleteSpacecraftNotFound() {
-        when(spacecraftRepository.existsById(1L)).thenReturn(false);
+        when(spacecraftRepository.deleteAllByIdIn(List.of(1L))).thenReturn(0);
 
         assertThrows(EntityNotFoundException.class, () -> spacecraftService.deleteSpacecraft(1L));
-        verify(spacecraftRepository, times(0)).deleteById(1L);
+        verify(spacecraftCache, times(0)).evict(1L);
+        verifyNoInteractions(searchEngine, facets, changeLog);
+    }
+
+    @Test
+    void testDeleteSpacecraftsRemovesOnlyTheDeletedIds() {
+        when(spacecraftRepository.deleteAllByIdInReturningIds(Set.of(1L, 2L, 99L))).thenReturn(List.of(1L, 2L));
+
+        List<Long> deleted = spacecraftService.deleteSpacecrafts(Arrays.asList(1L, 2L, null, 99L, 1L));
+
+        assertEquals(List.of(1L, 2L), deleted);
+        verify(searchEngine).remove(1L);
+        verify(searchEngine).remove(2L);
+        verify(facets).remove(1L);
+        verify(facets).remove(2L);
+        verify(spacecraftCache, times(1)).evictAll(List.of(1L, 2L));
+        verify(changeLog).record(SpacecraftChange.Type.DELETED, 1L, null);
+        verify(changeLog).record(SpacecraftChange.Type.DELETED, 2L, null);
+        verifyNoMoreInteractions(changeLog);
+    }
+
+    @Test
+    void testDeleteSpacecraftsNoneFound() {
+        when(spacecraftRepository.deleteAllByIdInReturningIds(Set.of(98L, 99L))).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> spacecraftService.deleteSpacecrafts(List.of(98L, 99L)));
+        verifyNoInteractions(spacecraftCache, searchEngine, facets, changeLog);
+    }
+
+    @Test
+    void testDeleteSpacecraftsInvalidCount() {
+        List<Long> tooMany = LongStream.rangeClosed(1, SpacecraftService.MAX_BATCH_IDS + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> spacecraftService.deleteSpacecrafts(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> spacecraftService.deleteSpacecrafts(tooMany));
+        verifyNoInteractions(spacecraftRepository);
+    }
+
+    /**
+     * Runs a write in a simulated transaction and returns the synchronizations it
+     * registered, so the test decides when each of them sees its commit.
+     */
+    private static List<TransactionSynchronization> inTransaction(Runnable write) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 }
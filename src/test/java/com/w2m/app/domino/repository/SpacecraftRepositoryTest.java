@@ -0,0 +1,157 @@
+package com.w2m.app.domino.repository;
+
+import com.w2m.app.domino.model.Spacecraft;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class SpacecraftRepositoryTest {
+
+    @Autowired
+    private SpacecraftRepository spacecraftRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testFindAllDetachedReturnsUnmanagedPage() {
+        Page<Spacecraft> page = spacecraftRepository.findAllDetached(PageRequest.of(0, 2, Sort.by("name")));
+
+        assertEquals(4, page.getTotalElements());
+        assertEquals(List.of("Millennium Falcon", "Star Destroyer"), page.map(Spacecraft::getName).getContent());
+        assertEquals(0L, page.getContent().get(0).getVersion());
+        assertNoneManaged(page.getContent());
+    }
+
+    @Test
+    void testFindByNameContainingReturnsUnmanagedMatches() {
+        List<Spacecraft> result = spacecraftRepository.findByNameContaining("Fighter");
+
+        assertEquals(List.of("TIE Fighter"), result.stream().map(Spacecraft::getName).toList());
+        assertNoneManaged(result);
+    }
+
+    @Test
+    void testFindByNameContainingMatchesWildcardsLiterally() {
+        spacecraftRepository.saveAndFlush(new Spacecraft(null, "100% Wing", "Fighter", "Earth"));
+
+        assertEquals(List.of("100% Wing"),
+                spacecraftRepository.findByNameContaining("0% W").stream().map(Spacecraft::getName).toList());
+        assertTrue(spacecraftRepository.findByNameContaining("_-").isEmpty());
+    }
+
+    @Test
+    void testFindByIdGreaterThanReturnsUnmanagedRowsInIdOrder() {
+        List<Spacecraft> result = spacecraftRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(2));
+
+        assertEquals(List.of(2L, 3L), result.stream().map(Spacecraft::getId).toList());
+        assertNoneManaged(result);
+    }
+
+    @Test
+    void testFindByNamePrefixIgnoresCaseAndOrdersByName() {
+        spacecraftRepository.saveAndFlush(new Spacecraft(null, "star Cruiser", "Capital Ship", "Earth"));
+
+        List<Spacecraft> result = spacecraftRepository.findByNamePrefix("star", Limit.of(10));
+
+        assertEquals(List.of("star Cruiser", "Star Destroyer"), result.stream().map(Spacecraft::getName).toList());
+        assertEquals(List.of("star Cruiser"),
+                spacecraftRepository.findByNamePrefix("star", Limit.of(1)).stream().map(Spacecraft::getName).toList());
+        assertTrue(spacecraftRepository.findByNamePrefix("_", Limit.of(10)).isEmpty());
+        assertNoneManaged(result);
+    }
+
+    @Test
+    void testPrefixSearchIsAnIndexRangeScan() {
+        String plan = entityManager.createNativeQuery(
+                        "EXPLAIN SELECT * FROM spacecraft WHERE name_normalized LIKE ?1 ESCAPE '\\'")
+                .setParameter(1, "star%")
+                .getSingleResult().toString();
+
+        assertTrue(plan.contains("IDX_SPACECRAFT_NAME_NORMALIZED"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void testColumnLookupsUseIndexes() {
+        assertTrue(explain("SELECT * FROM spacecraft WHERE name = 'X-Wing'").contains("IDX_SPACECRAFT_NAME"));
+        assertTrue(explain("SELECT * FROM spacecraft WHERE type = 'Fighter'").contains("IDX_SPACECRAFT_TYPE"));
+        assertTrue(explain("SELECT * FROM spacecraft WHERE origin = 'Earth'").contains("IDX_SPACECRAFT_ORIGIN"));
+    }
+
+    @Test
+    void testSpecificationsCombineFilters() {
+        spacecraftRepository.saveAndFlush(new Spacecraft(null, "TIE_Interceptor", "Fighter", "Galactic Empire"));
+
+        Page<Spacecraft> fighters = spacecraftRepository.findAll(Specification.allOf(
+                SpacecraftSpecifications.hasType("Fighter"),
+                SpacecraftSpecifications.hasOrigin("Galactic Empire"),
+                SpacecraftSpecifications.nameContains(null)), PageRequest.of(0, 10, Sort.by("id")));
+        List<Spacecraft> literal = spacecraftRepository.findAll(SpacecraftSpecifications.nameContains("E_I"));
+
+        assertEquals(List.of("TIE Fighter", "TIE_Interceptor"), fighters.map(Spacecraft::getName).getContent());
+        assertEquals(List.of("TIE_Interceptor"), literal.stream().map(Spacecraft::getName).toList());
+    }
+
+    @Test
+    void testUpdateIfVersionUpdatesTheGivenColumnsInOneStatement() {
+        Spacecraft updated = spacecraftRepository.updateIfVersion(1L, "X-Wing Mk2", null, null, 0L).orElseThrow();
+
+        assertEquals("X-Wing Mk2", updated.getName());
+        assertEquals("Fighter", updated.getType());
+        assertEquals("Rebel Alliance", updated.getOrigin());
+        assertEquals(1L, updated.getVersion());
+        entityManager.clear();
+        Spacecraft stored = spacecraftRepository.findById(1L).orElseThrow();
+        assertEquals("X-Wing Mk2", stored.getName());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void testUpdateIfVersionSkipsStaleVersionsAndMissingIds() {
+        assertTrue(spacecraftRepository.updateIfVersion(1L, "X-Wing Mk2", null, null, 5L).isEmpty());
+        assertTrue(spacecraftRepository.updateIfVersion(99L, "X-Wing Mk2", null, null, 0L).isEmpty());
+        entityManager.clear();
+        assertEquals("X-Wing", spacecraftRepository.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void testDeleteAllByIdInCountsTheDeletedRows() {
+        assertEquals(2, spacecraftRepository.deleteAllByIdIn(List.of(1L, 2L, 99L)));
+        assertEquals(0, spacecraftRepository.deleteAllByIdIn(List.of(1L)));
+        assertFalse(spacecraftRepository.existsById(1L));
+        assertFalse(spacecraftRepository.existsById(2L));
+        assertTrue(spacecraftRepository.existsById(3L));
+    }
+
+    @Test
+    void testDeleteAllByIdInReturningIdsReturnsOnlyTheDeletedIds() {
+        List<Long> deleted = spacecraftRepository.deleteAllByIdInReturningIds(List.of(2L, 3L, 99L));
+
+        assertEquals(Set.of(2L, 3L), Set.copyOf(deleted));
+        assertTrue(spacecraftRepository.deleteAllByIdInReturningIds(List.of(2L)).isEmpty());
+        assertTrue(spacecraftRepository.existsById(1L));
+    }
+
+    private String explain(String sql) {
+        return entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult().toString();
+    }
+
+    private void assertNoneManaged(List<Spacecraft> spacecrafts) {
+        assertFalse(spacecrafts.isEmpty());
+        spacecrafts.forEach(spacecraft -> assertFalse(entityManager.contains(spacecraft)));
+    }
+}
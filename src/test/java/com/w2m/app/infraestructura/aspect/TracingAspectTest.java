@@ -0,0 +1,70 @@
+package com.w2m.app.infraestructura.aspect;
+
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.SpacecraftSearchEngine;
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.infraestructura.cache.SingleFlight;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import com.w2m.app.infraestructura.tracing.TraceRecord;
+import com.w2m.app.infraestructura.tracing.TraceRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TracingAspectTest {
+
+    private final TraceRecorder traceRecorder = new TraceRecorder(true, 100, 16);
+    private final SpacecraftRepository spacecraftRepository = mock(SpacecraftRepository.class);
+    private SpacecraftService proxy;
+
+    @BeforeEach
+    void setUp() {
+        SpacecraftSearchEngine searchEngine = mock(SpacecraftSearchEngine.class);
+        when(searchEngine.search("Wing")).thenReturn(List.of());
+        SpacecraftService service = new SpacecraftService(spacecraftRepository, searchEngine, mock(SpacecraftCache.class),
+                new SingleFlight(new SimpleMeterRegistry()), mock(SpacecraftFacets.class), mock(SpacecraftChangeLog.class));
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TracingAspect(traceRecorder));
+        proxy = proxyFactory.getProxy();
+    }
+
+    @Test
+    void testTraceRecordsSuccessfulCall() {
+        proxy.searchSpacecraftByName("Wing");
+
+        List<TraceRecord> records = traceRecorder.recent();
+        assertEquals(1, records.size());
+        assertEquals("SpacecraftService.searchSpacecraftByName", records.get(0).operation());
+        assertTrue(records.get(0).successful());
+    }
+
+    @Test
+    void testTraceRecordsFailedCall() {
+        when(spacecraftRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> proxy.deleteSpacecraft(1L));
+
+        assertEquals("EntityNotFoundException", traceRecorder.recent().get(0).outcome());
+    }
+
+    @Test
+    void testTraceDisabled() {
+        traceRecorder.setEnabled(false);
+
+        proxy.searchSpacecraftByName("Wing");
+
+        assertTrue(traceRecorder.recent().isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package com.w2m.app.infraestructura.cache;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheWarmUpEndpointTest {
+
+    private final CacheWarmer cacheWarmer = mock(CacheWarmer.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final CacheWarmUpEndpoint endpoint = new CacheWarmUpEndpoint(cacheWarmer, eventPublisher);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWarmUpRefusesTrafficUntilDone() {
+        when(cacheWarmer.warmUp()).thenReturn(3);
+
+        assertEquals(3, endpoint.warmUp().get("loaded"));
+
+        ArgumentCaptor<AvailabilityChangeEvent<ReadinessState>> events = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC),
+                events.getAllValues().stream().map(AvailabilityChangeEvent::getState).toList());
+    }
+
+    @Test
+    void testKeys() {
+        CacheWarmUpSnapshot keys = new CacheWarmUpSnapshot(List.of(1L), List.of("Wing"));
+        when(cacheWarmer.keys()).thenReturn(keys);
+
+        assertEquals(keys, endpoint.keys());
+    }
+}
@@ -0,0 +1,95 @@
+package com.w2m.app.infraestructura.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.model.Spacecraft;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CacheWarmerTest {
+
+    @TempDir
+    Path directory;
+
+    private final SpacecraftService spacecraftService = mock(SpacecraftService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CaffeineCacheManager cacheManager;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(SpacecraftCache.BY_ID, SpacecraftCache.BY_NAME);
+        cacheManager.setCacheSpecification("maximumSize=100");
+        snapshotFile = directory.resolve("warm-up.json");
+    }
+
+    @Test
+    void testWarmUpLoadsConfiguredAndSnapshotKeys() throws Exception {
+        objectMapper.writeValue(snapshotFile.toFile(), new CacheWarmUpSnapshot(List.of(2L, 3L), List.of("Falcon")));
+        CacheWarmer cacheWarmer = warmer(true, List.of(1L, 2L), List.of("Wing"), 100);
+
+        assertEquals(5, cacheWarmer.warmUp());
+
+        verify(spacecraftService).getSpacecraftById(1L);
+        verify(spacecraftService).getSpacecraftById(2L);
+        verify(spacecraftService).getSpacecraftById(3L);
+        verify(spacecraftService).searchSpacecraftByName("Wing");
+        verify(spacecraftService).searchSpacecraftByName("Falcon");
+    }
+
+    @Test
+    void testSnapshotKeepsHottestKeys() {
+        CacheWarmer cacheWarmer = warmer(true, List.of(), List.of(), 100);
+        cacheManager.getCache(SpacecraftCache.BY_ID).put(7L, new Spacecraft(7L, "X-Wing", "Fighter", "Rebel Alliance"));
+        cacheManager.getCache(SpacecraftCache.BY_NAME).put("Wing", List.of());
+
+        cacheWarmer.saveSnapshot();
+
+        assertTrue(Files.exists(snapshotFile));
+        assertEquals(new CacheWarmUpSnapshot(List.of(7L), List.of("Wing")), cacheWarmer.keys());
+    }
+
+    @Test
+    void testLoadsAreRateLimited() {
+        CacheWarmer cacheWarmer = warmer(true, List.of(1L, 2L, 3L, 4L, 5L), List.of(), 10);
+
+        long start = System.nanoTime();
+        cacheWarmer.warmUp();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 350);
+        verify(spacecraftService, times(5)).getSpacecraftById(anyLong());
+    }
+
+    @Test
+    void testDisabledWarmerNeitherLoadsNorSaves() throws Exception {
+        CacheWarmer cacheWarmer = warmer(false, List.of(1L), List.of(), 100);
+
+        cacheWarmer.run(null);
+        cacheWarmer.saveSnapshot();
+
+        verify(spacecraftService, never()).getSpacecraftById(any());
+        assertFalse(Files.exists(snapshotFile));
+    }
+
+    private CacheWarmer warmer(boolean enabled, List<Long> ids, List<String> names, int rate) {
+        return new CacheWarmer(spacecraftService, cacheManager, objectMapper, enabled, snapshotFile,
+                ids, names, 1000, 4, rate, Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,106 @@
+package com.w2m.app.infraestructura.cache;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapSpacecraftStoreTest {
+
+    @Test
+    void testPutAndGetRoundTrip() {
+        OffHeapSpacecraftStore store = new OffHeapSpacecraftStore(1024, 8);
+        Spacecraft falcon = new Spacecraft(3L, "Halcón Milenario", "Freighter", null, 7L);
+
+        assertTrue(store.put(falcon));
+
+        Spacecraft stored = store.get(3L);
+        assertEquals(falcon, stored);
+        assertEquals("Halcón Milenario", stored.getName());
+        assertNull(stored.getOrigin());
+        assertEquals(7L, stored.getVersion());
+        store.put(new Spacecraft(4L, "X-Wing", "Fighter", "Rebel Alliance"));
+        assertNull(store.get(4L).getVersion());
+        store.remove(4L);
+        assertNull(store.get(4L));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDeletes() {
+        OffHeapSpacecraftStore store = new OffHeapSpacecraftStore(1024, 8);
+        store.put(new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance"));
+
+        store.put(new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance"));
+        assertEquals("X-Wing Mk2", store.get(1L).getName());
+        assertEquals(1, store.size());
+
+        store.remove(1L);
+        assertNull(store.get(1L));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testFullSlabIsCompacted() {
+        Spacecraft xWing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance");
+        int entryBytes = OffHeapSpacecraftStore.encode(xWing).length;
+        OffHeapSpacecraftStore store = new OffHeapSpacecraftStore(entryBytes * 2, 8);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.put(xWing));
+        }
+        assertTrue(store.put(new Spacecraft(2L, "X-Wing", "Fighter", "Rebel Alliance")));
+
+        assertFalse(store.put(new Spacecraft(3L, "X-Wing", "Fighter", "Rebel Alliance")));
+        assertEquals(xWing, store.get(1L));
+        assertEquals("X-Wing", store.get(2L).getName());
+        assertEquals(2 * entryBytes, store.usedBytes());
+    }
+
+    @Test
+    void testEntriesAreBoundedByMaxEntries() {
+        OffHeapSpacecraftStore store = new OffHeapSpacecraftStore(1024, 2);
+
+        assertTrue(store.put(new Spacecraft(1L, "A", "B", "C")));
+        assertTrue(store.put(new Spacecraft(2L, "A", "B", "C")));
+        assertFalse(store.put(new Spacecraft(3L, "A", "B", "C")));
+        assertTrue(store.put(new Spacecraft(2L, "D", "B", "C")));
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        OffHeapSpacecraftStore store = new OffHeapSpacecraftStore(4096, 64);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(64);
+            if (random.nextInt(3) == 0) {
+                store.remove(id);
+                expected.remove(id);
+            } else {
+                String name = "Ship " + random.nextInt(1000);
+                assertTrue(store.put(new Spacecraft(id, name, "Fighter", "Earth")));
+                expected.put(id, name);
+            }
+        }
+
+        assertEquals(expected.size(), store.size());
+        for (long id = 0; id < 64; id++) {
+            Spacecraft stored = store.get(id);
+            assertEquals(expected.get(id), stored == null ? null : stored.getName());
+        }
+    }
+
+    @Test
+    void testInvalidSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapSpacecraftStore(0, 8));
+    }
+}
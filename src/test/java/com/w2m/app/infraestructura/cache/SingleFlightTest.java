@@ -0,0 +1,108 @@
+package com.w2m.app.infraestructura.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+    }
+
+    @Test
+    void testConcurrentLoadsOfSameKeyShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.load("cache", 1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return value;
+        }));
+        while (calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> singleFlight.load("cache", 1L, () -> {
+            calls.incrementAndGet();
+            return new Object();
+        }));
+        while (coalesced() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertSame(value, leader.get(5, TimeUnit.SECONDS));
+        assertSame(value, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, coalesced());
+    }
+
+    @Test
+    void testSequentialLoadsAreNotCoalesced() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.load("cache", 1L, calls::incrementAndGet);
+        singleFlight.load("cache", 1L, calls::incrementAndGet);
+        singleFlight.load("other", 1L, calls::incrementAndGet);
+
+        assertEquals(3, calls.get());
+        assertEquals(0.0, coalesced());
+    }
+
+    @Test
+    void testFailureIsSharedWithWaitingCallers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.load("cache", 1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        while (calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(
+                () -> singleFlight.load("cache", 1L, Object::new));
+        while (coalesced() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(leaderFailure.getCause() instanceof IllegalStateException);
+        assertSame(leaderFailure.getCause(), followerFailure.getCause());
+        assertEquals(1, calls.get());
+    }
+
+    private double coalesced() {
+        var counter = meterRegistry.find(SingleFlight.COALESCED_METRIC).tag("cache", "cache").counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.w2m.app.infraestructura.cache;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpacecraftCacheTest {
+
+    private final Spacecraft xWing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance");
+    private final Spacecraft yWing = new Spacecraft(2L, "Y-Wing", "Bomber", "Rebel Alliance");
+    private final Spacecraft falcon = new Spacecraft(3L, "Millennium Falcon", "Freighter", "Rebel Alliance");
+
+    private final OffHeapSpacecraftStore offHeapStore = new OffHeapSpacecraftStore(4096, 16);
+    private Cache byId;
+    private Cache byName;
+    private SpacecraftCache spacecraftCache;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                SpacecraftCache.BY_ID, SpacecraftCache.BY_NAME, SpacecraftCache.BY_ID_MISSING);
+        byId = cacheManager.getCache(SpacecraftCache.BY_ID);
+        byName = cacheManager.getCache(SpacecraftCache.BY_NAME);
+        spacecraftCache = new SpacecraftCache(cacheManager, offHeapStore);
+
+        byName.put("Wing", List.of(xWing, yWing));
+        byName.put("Falcon", List.of(falcon));
+    }
+
+    @Test
+    void testPutWritesThroughById() {
+        spacecraftCache.put(falcon);
+
+        assertSame(falcon, byId.get(3L).get());
+    }
+
+    @Test
+    void testPutAddsToMatchingSearches() {
+        Spacecraft aWing = new Spacecraft(4L, "A-Wing", "Interceptor", "Rebel Alliance");
+
+        spacecraftCache.put(aWing);
+
+        assertEquals(List.of(xWing, yWing, aWing), byName.get("Wing").get());
+        assertEquals(List.of(falcon), byName.get("Falcon").get());
+    }
+
+    @Test
+    void testPutMovesRenamedSpacecraftBetweenSearches() {
+        Spacecraft renamed = new Spacecraft(1L, "X-Falcon", "Fighter", "Rebel Alliance");
+
+        spacecraftCache.put(renamed);
+
+        assertEquals(List.of(yWing), byName.get("Wing").get());
+        assertEquals(List.of(renamed, falcon), byName.get("Falcon").get());
+    }
+
+    @Test
+    void testPutLeavesUnrelatedSearchesUntouched() {
+        Object cached = byName.get("Falcon").get();
+
+        spacecraftCache.put(new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance"));
+
+        assertSame(cached, byName.get("Falcon").get());
+    }
+
+    @Test
+    void testOlderWriteDoesNotReplaceNewerOne() {
+        Spacecraft newer = new Spacecraft(1L, "X-Wing Mk3", "Fighter", "Rebel Alliance", 5L);
+        spacecraftCache.put(newer);
+
+        spacecraftCache.put(new Spacecraft(1L, "X-Falcon", "Fighter", "Rebel Alliance", 4L));
+
+        assertSame(newer, byId.get(1L).get());
+        assertEquals(List.of(falcon), byName.get("Falcon").get());
+    }
+
+    @Test
+    void testOlderWriteDoesNotReplaceNewerOffHeapCopy() {
+        Spacecraft newer = new Spacecraft(1L, "X-Wing Mk3", "Fighter", "Rebel Alliance", 5L);
+        offHeapStore.put(newer);
+
+        spacecraftCache.put(new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 4L));
+
+        assertEquals(newer, spacecraftCache.get(1L));
+    }
+
+    @Test
+    void testWriteAppliedAfterDeleteIsDropped() {
+        spacecraftCache.evict(1L);
+
+        spacecraftCache.put(new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 4L));
+        spacecraftCache.putLoaded(xWing, spacecraftCache.idGeneration(1L));
+        spacecraftCache.markMissing(1L, spacecraftCache.idGeneration(1L));
+
+        assertNull(byId.get(1L));
+        assertEquals(List.of(yWing), byName.get("Wing").get());
+        assertTrue(spacecraftCache.isMissing(1L));
+        spacecraftCache.put(new Spacecraft(1L, "X-Wing Mk3", "Fighter", "Rebel Alliance", 5L));
+        assertNull(byId.get(1L));
+    }
+
+    @Test
+    void testPutDropsOffHeapCopy() {
+        offHeapStore.put(xWing);
+
+        spacecraftCache.put(new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance"));
+
+        assertNull(offHeapStore.get(1L));
+    }
+
+    @Test
+    void testEvictRemovesFromBothCaches() {
+        byId.put(2L, yWing);
+        offHeapStore.put(yWing);
+
+        spacecraftCache.evict(2L);
+
+        assertNull(byId.get(2L));
+        assertNull(offHeapStore.get(2L));
+        assertEquals(List.of(xWing), byName.get("Wing").get());
+        assertEquals(List.of(falcon), byName.get("Falcon").get());
+    }
+
+    @Test
+    void testEvictAllRemovesEveryDeletedSpacecraft() {
+        byId.put(1L, xWing);
+        byId.put(3L, falcon);
+        offHeapStore.put(yWing);
+
+        spacecraftCache.evictAll(List.of(2L, 3L));
+
+        assertSame(xWing, byId.get(1L).get());
+        assertNull(byId.get(3L));
+        assertNull(offHeapStore.get(2L));
+        assertEquals(List.of(xWing), byName.get("Wing").get());
+        assertEquals(List.of(), byName.get("Falcon").get());
+    }
+
+    @Test
+    void testPromotionRacingWithWriteKeepsTheWrite() {
+        Spacecraft newer = new Spacecraft(2L, "Y-Wing Mk2", "Bomber", "Rebel Alliance", 1L);
+        SpacecraftCache racing = racingWith(cache -> cache.put(newer));
+
+        assertEquals(newer, racing.get(2L));
+        assertSame(newer, byId.get(2L).get());
+    }
+
+    @Test
+    void testPromotionRacingWithDeleteIsRefused() {
+        SpacecraftCache racing = racingWith(cache -> cache.evict(2L));
+
+        assertNull(racing.get(2L));
+        assertNull(byId.get(2L));
+    }
+
+    @Test
+    void testGetAllPresentPromotesFromOffHeap() {
+        byId.put(1L, xWing);
+        offHeapStore.put(yWing);
+
+        Map<Long, Spacecraft> found = spacecraftCache.getAllPresent(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, xWing, 2L, yWing), found);
+        assertEquals(yWing, byId.get(2L).get());
+    }
+
+    @Test
+    void testPutLoadedLeavesSearchesUntouched() {
+        Object cached = byName.get("Wing").get();
+
+        spacecraftCache.putLoaded(List.of(falcon), Map.of(3L, spacecraftCache.idGeneration(3L)));
+
+        assertSame(falcon, byId.get(3L).get());
+        assertSame(cached, byName.get("Wing").get());
+    }
+
+    @Test
+    void testLoadsStartedBeforeAWriteAreNotCached() {
+        long generation = spacecraftCache.idGeneration(1L);
+        Spacecraft renamed = new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance");
+        spacecraftCache.put(renamed);
+
+        spacecraftCache.putLoaded(xWing, generation);
+
+        assertSame(renamed, byId.get(1L).get());
+    }
+
+    @Test
+    void testLoadsStartedBeforeADeleteAreNotCached() {
+        long generation = spacecraftCache.idGeneration(2L);
+        spacecraftCache.evict(2L);
+
+        spacecraftCache.putLoaded(yWing, generation);
+
+        assertNull(byId.get(2L));
+    }
+
+    @Test
+    void testOlderLoadedVersionDoesNotReplaceCachedOne() {
+        Spacecraft current = new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 4L);
+        byId.put(1L, current);
+
+        spacecraftCache.putLoaded(new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 3L),
+                spacecraftCache.idGeneration(1L));
+
+        assertSame(current, byId.get(1L).get());
+    }
+
+    @Test
+    void testSearchesStartedBeforeAWriteAreNotCached() {
+        long generation = spacecraftCache.nameGeneration();
+        spacecraftCache.put(new Spacecraft(4L, "A-Wing", "Interceptor", "Rebel Alliance"));
+
+        spacecraftCache.putSearch("A-W", List.of(), generation);
+        assertNull(spacecraftCache.getSearch("A-W"));
+
+        spacecraftCache.putSearch("A-W", List.of(xWing), spacecraftCache.nameGeneration());
+        assertEquals(List.of(xWing), spacecraftCache.getSearch("A-W"));
+    }
+
+    @Test
+    void testGetPromotesFromOffHeap() {
+        offHeapStore.put(yWing);
+
+        assertEquals(yWing, spacecraftCache.get(2L));
+        assertNull(spacecraftCache.get(3L));
+    }
+
+    @Test
+    void testMarkMissingUntilWritten() {
+        spacecraftCache.markMissing(5L, spacecraftCache.idGeneration(5L));
+
+        assertTrue(spacecraftCache.isMissing(5L));
+        assertFalse(spacecraftCache.isMissing(6L));
+
+        spacecraftCache.put(new Spacecraft(5L, "B-Wing", "Fighter", "Rebel Alliance"));
+
+        assertFalse(spacecraftCache.isMissing(5L));
+    }
+
+    @Test
+    void testMarkMissingStartedBeforeACreateIsDropped() {
+        long generation = spacecraftCache.idGeneration(5L);
+        spacecraftCache.put(new Spacecraft(5L, "B-Wing", "Fighter", "Rebel Alliance"));
+
+        spacecraftCache.markMissing(5L, generation);
+
+        assertFalse(spacecraftCache.isMissing(5L));
+    }
+
+    @Test
+    void testNonCaffeineCacheIsCleared() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+                SpacecraftCache.BY_ID, SpacecraftCache.BY_NAME, SpacecraftCache.BY_ID_MISSING);
+        cacheManager.getCache(SpacecraftCache.BY_NAME).put("Wing", List.of(xWing));
+
+        new SpacecraftCache(cacheManager, offHeapStore).evict(1L);
+
+        assertNull(cacheManager.getCache(SpacecraftCache.BY_NAME).get("Wing"));
+    }
+
+    /**
+     * Returns a cache whose off-heap tier holds {@code yWing} and runs the given
+     * action the first time it is read, between the read and the promotion.
+     */
+    private SpacecraftCache racingWith(Consumer<SpacecraftCache> action) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                SpacecraftCache.BY_ID, SpacecraftCache.BY_NAME, SpacecraftCache.BY_ID_MISSING);
+        byId = cacheManager.getCache(SpacecraftCache.BY_ID);
+        AtomicReference<SpacecraftCache> cache = new AtomicReference<>();
+        AtomicBoolean raced = new AtomicBoolean();
+        OffHeapSpacecraftStore store = new OffHeapSpacecraftStore(4096, 16) {
+            @Override
+            public Spacecraft get(long id) {
+                Spacecraft copy = super.get(id);
+                if (raced.compareAndSet(false, true)) {
+                    action.accept(cache.get());
+                }
+                return copy;
+            }
+        };
+        store.put(yWing);
+        cache.set(new SpacecraftCache(cacheManager, store));
+        return cache.get();
+    }
+}
@@ -0,0 +1,166 @@
+package com.w2m.app.infraestructura.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.w2m.app.domino.model.Spacecraft;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.infraestructura.cache.OffHeapSpacecraftStore;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheConfigTest {
+
+    private final SpacecraftRepository spacecraftRepository = mock(SpacecraftRepository.class);
+    private final OffHeapSpacecraftStore offHeapStore = new OffHeapSpacecraftStore(4096, 16);
+    private ObjectProvider<SpacecraftRepository> repositoryProvider;
+    private CaffeineCacheManager cacheManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cacheManager = new CaffeineCacheManager();
+        repositoryProvider = mock(ObjectProvider.class);
+        when(repositoryProvider.getObject()).thenReturn(spacecraftRepository);
+        new CacheConfig().spacecraftCacheCustomizer(repositoryProvider, offHeapStore,
+                "maximumWeight=1000,refreshAfterWrite=5m",
+                "maximumWeight=1000",
+                "maximumSize=10").customize(cacheManager);
+    }
+
+    @Test
+    void testMissIsLeftToTheService() {
+        assertNull(cacheManager.getCache(SpacecraftCache.BY_ID).get(1L));
+        verify(spacecraftRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testMissIsPromotedFromOffHeap() {
+        Spacecraft xWing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance");
+        offHeapStore.put(xWing);
+        Cache byId = cacheManager.getCache(SpacecraftCache.BY_ID);
+
+        assertEquals(xWing, byId.get(1L).get());
+        offHeapStore.remove(1L);
+        assertEquals(xWing, byId.get(1L).get());
+        verify(spacecraftRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testSizeEvictionDemotesToOffHeap() {
+        Cache byId = cacheManager.getCache(SpacecraftCache.BY_ID);
+        for (long id = 1; id <= 20; id++) {
+            byId.put(id, new Spacecraft(id, "X-Wing", "Fighter", "Rebel Alliance"));
+        }
+        ((com.github.benmanes.caffeine.cache.Cache<?, ?>) byId.getNativeCache()).cleanUp();
+
+        assertTrue(offHeapStore.size() > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshReloadsFromDatabase() throws InterruptedException {
+        Spacecraft renamed = new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance");
+        when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        Cache byId = cacheManager.getCache(SpacecraftCache.BY_ID);
+        byId.put(1L, new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance"));
+
+        ((LoadingCache<Object, Object>) byId.getNativeCache()).refresh(1L).join();
+
+        assertSame(renamed, awaitRefresh(byId, 1L, renamed));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshDropsDeletedSpacecraft() throws InterruptedException {
+        when(spacecraftRepository.findById(1L)).thenReturn(Optional.empty());
+        Cache byId = cacheManager.getCache(SpacecraftCache.BY_ID);
+        byId.put(1L, new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance"));
+
+        ((LoadingCache<Object, Object>) byId.getNativeCache()).refresh(1L).join();
+
+        assertNull(awaitRefresh(byId, 1L, null));
+    }
+
+    @Test
+    void testExpiredEntriesAreNotDemoted() {
+        Spacecraft xWing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance");
+
+        CacheConfig.demote(offHeapStore, xWing, RemovalCause.EXPIRED);
+        assertEquals(0, offHeapStore.size());
+
+        CacheConfig.demote(offHeapStore, xWing, RemovalCause.SIZE);
+        assertEquals(1, offHeapStore.size());
+    }
+
+    @Test
+    void testRefreshKeepsNewerCachedVersion() throws Exception {
+        Spacecraft cached = new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 3L);
+        Spacecraft stale = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 2L);
+        Spacecraft newer = new Spacecraft(1L, "X-Wing Mk3", "Fighter", "Rebel Alliance", 4L);
+        CacheLoader<Object, Object> loader = CacheConfig.loader(repositoryProvider, offHeapStore);
+
+        when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(stale));
+        assertSame(cached, loader.reload(1L, cached));
+
+        when(spacecraftRepository.findById(1L)).thenReturn(Optional.of(newer));
+        assertSame(newer, loader.reload(1L, cached));
+    }
+
+    @Test
+    void testWeightCountsEverySpacecraftInSearchResult() {
+        Spacecraft xWing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance");
+        int single = CacheConfig.weigh(1L, xWing);
+
+        assertEquals(64 + 2 * (6 + 7 + 14), single);
+        assertEquals(64 + 3 * single, CacheConfig.weigh("Wing", List.of(xWing, xWing, xWing)));
+    }
+
+    @Test
+    void testSearchCacheIsBoundedByWeight() {
+        Cache byName = cacheManager.getCache(SpacecraftCache.BY_NAME);
+        List<Spacecraft> result = List.of(new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance"));
+        for (int i = 0; i < 100; i++) {
+            byName.put("Wing" + i, result);
+        }
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+                (com.github.benmanes.caffeine.cache.Cache<?, ?>) byName.getNativeCache();
+        nativeCache.cleanUp();
+
+        assertTrue(nativeCache.estimatedSize() <= 1000 / CacheConfig.weigh("Wing", result));
+    }
+
+    /**
+     * The refresh future completes before Caffeine applies its result to the entry,
+     * so the cache is polled until it holds the expected value or a second elapses.
+     */
+    private static Object awaitRefresh(Cache cache, Object key, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        Object value;
+        do {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            value = wrapper == null ? null : wrapper.get();
+            if (value == expected) {
+                return value;
+            }
+            Thread.sleep(5);
+        } while (System.nanoTime() < deadline);
+        return value;
+    }
+}
@@ -0,0 +1,42 @@
+package com.w2m.app.infraestructura.config;
+
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.search.SpacecraftFacets;
+import com.w2m.app.application.search.SpacecraftSearchEngine;
+import com.w2m.app.application.service.SpacecraftService;
+import com.w2m.app.domino.repository.SpacecraftRepository;
+import com.w2m.app.infraestructura.cache.SingleFlight;
+import com.w2m.app.infraestructura.cache.SpacecraftCache;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsConfigTest {
+
+    @Test
+    void testTimedAspectRecordsServiceMethods() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SpacecraftSearchEngine searchEngine = mock(SpacecraftSearchEngine.class);
+        when(searchEngine.search("Wing")).thenReturn(List.of());
+        SpacecraftService service = new SpacecraftService(
+                mock(SpacecraftRepository.class), searchEngine, mock(SpacecraftCache.class), new SingleFlight(meterRegistry),
+                mock(SpacecraftFacets.class), mock(SpacecraftChangeLog.class));
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        SpacecraftService proxy = proxyFactory.getProxy();
+
+        proxy.searchSpacecraftByName("Wing");
+
+        Timer timer = meterRegistry.find("spacecraft.service").tag("method", "searchSpacecraftByName").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,64 @@
+package com.w2m.app.infraestructura.config;
+
+import com.w2m.app.infraestructura.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ReplicaRoutingConfigTest {
+
+    @Test
+    void testPoolsShareSettingsAndReadsGoToReplicas() throws Exception {
+        String primaryUrl = "jdbc:h2:mem:primary-" + UUID.randomUUID();
+        String replicaUrl = "jdbc:h2:mem:replica-" + UUID.randomUUID();
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(primaryUrl);
+        properties.setUsername("sa");
+        properties.afterPropertiesSet();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "3");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReplicaRoutingConfig config = new ReplicaRoutingConfig();
+
+        try (ReplicaRoutingDataSource routing = config.routingDataSource(properties, environment, meterRegistry,
+                List.of(replicaUrl), "SELECT 0", Duration.ofSeconds(5), Duration.ofMinutes(1))) {
+            DataSource dataSource = config.dataSource(routing);
+
+            assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+            assertEquals(primaryUrl, urlOf(dataSource));
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                assertEquals(replicaUrl, urlOf(dataSource));
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+            HikariDataSource replica = routing.getResolvedDataSources().values().stream()
+                    .map(HikariDataSource.class::cast)
+                    .filter(pool -> pool.getJdbcUrl().equals(replicaUrl))
+                    .findFirst().orElseThrow();
+            assertEquals(3, replica.getMaximumPoolSize());
+            assertEquals("replica-1", replica.getPoolName());
+            assertNotNull(meterRegistry.find("spacecraft.datasource.replicas.available").gauge());
+        }
+    }
+
+    private static String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
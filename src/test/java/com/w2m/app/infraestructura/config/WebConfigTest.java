@@ -0,0 +1,51 @@
+package com.w2m.app.infraestructura.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.w2m.app.web.SpacecraftProtobufHttpMessageConverter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebConfigTest {
+
+    private final WebConfig webConfig = new WebConfig();
+
+    @Test
+    void testBinaryJacksonConvertersUseTheirFactories() {
+        assertInstanceOf(SmileFactory.class,
+                webConfig.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper().getFactory());
+        assertInstanceOf(CBORFactory.class,
+                webConfig.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper().getFactory());
+    }
+
+    @Test
+    void testProtobufConverterIsAddedAfterJson() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter()));
+
+        webConfig.extendMessageConverters(converters);
+
+        assertEquals(2, converters.size());
+        assertTrue(converters.get(0) instanceof MappingJackson2HttpMessageConverter);
+        assertInstanceOf(SpacecraftProtobufHttpMessageConverter.class, converters.get(1));
+    }
+
+    @Test
+    void testNegotiatedResponsesVaryByAcceptAndEncoding() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(new WebConfig.VaryInterceptor().preHandle(new MockHttpServletRequest(), response, new Object()));
+
+        assertEquals("Accept, Accept-Encoding", response.getHeader(HttpHeaders.VARY));
+    }
+}
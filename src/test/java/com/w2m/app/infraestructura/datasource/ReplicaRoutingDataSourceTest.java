@@ -0,0 +1,154 @@
+package com.w2m.app.infraestructura.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final List<Connection> keepAlive = new ArrayList<>();
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = node("primary", 0);
+        replica1 = node("replica-1", 0);
+        replica2 = node("replica-2", 0);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        for (Connection connection : keepAlive) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void testWritesGoToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", replica1));
+
+        assertEquals("primary", nodeOf(routing));
+        assertEquals("primary", nodeOf(routing));
+    }
+
+    @Test
+    void testReadOnlyTransactionsAreBalancedOverReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicas(replica1, replica2));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1"),
+                List.of(nodeOf(routing), nodeOf(routing), nodeOf(routing)));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkippedUntilItCatchesUp() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicas(replica1, replica2));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        setLag(replica1, 30);
+        routing.checkReplicas();
+        assertEquals(1, routing.availableReplicas());
+        assertEquals(List.of("replica-2", "replica-2"), List.of(nodeOf(routing), nodeOf(routing)));
+
+        setLag(replica1, 1);
+        routing.checkReplicas();
+        assertEquals(2, routing.availableReplicas());
+    }
+
+    @Test
+    void testReadsFallBackToPrimaryWithoutAvailableReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicas(replica1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        setLag(replica1, 30);
+        routing.checkReplicas();
+
+        assertEquals("primary", nodeOf(routing));
+    }
+
+    @Test
+    void testRefusedReplicaConnectionFallsBackToPrimary() throws SQLException {
+        JdbcDataSource down = new JdbcDataSource();
+        down.setURL("jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        ReplicaRoutingDataSource routing = routing(replicas(down, replica2));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", nodeOf(routing));
+        assertEquals(1, routing.availableReplicas());
+        assertEquals("replica-2", nodeOf(routing));
+    }
+
+    @Test
+    void testLazyProxyRoutesOnReadOnlyFlagSetAfterConnectionRequest() throws SQLException {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing(replicas(replica1)));
+
+        try (Connection connection = dataSource.getConnection()) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertEquals("replica-1", nodeOf(connection));
+        }
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas,
+                "SELECT lag_seconds FROM node", Duration.ofSeconds(5));
+    }
+
+    private static Map<String, DataSource> replicas(DataSource... dataSources) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < dataSources.length; i++) {
+            replicas.put("replica-" + (i + 1), dataSources[i]);
+        }
+        return replicas;
+    }
+
+    private DataSource node(String name, int lagSeconds) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID());
+        Connection connection = dataSource.getConnection();
+        keepAlive.add(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE node (name VARCHAR(20), lag_seconds INT)");
+            statement.execute("INSERT INTO node VALUES ('" + name + "', " + lagSeconds + ")");
+        }
+        return dataSource;
+    }
+
+    private static void setLag(DataSource dataSource, int lagSeconds) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE node SET lag_seconds = " + lagSeconds);
+        }
+    }
+
+    private static String nodeOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return nodeOf(connection);
+        }
+    }
+
+    private static String nodeOf(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT name FROM node")) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+}
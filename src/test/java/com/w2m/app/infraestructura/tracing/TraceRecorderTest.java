@@ -0,0 +1,37 @@
+package com.w2m.app.infraestructura.tracing;
+
+import com.w2m.app.application.exception.NegativeIdException;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceRecorderTest {
+
+    private final TraceRecorder traceRecorder = new TraceRecorder(true, 100, 16);
+
+    @Test
+    void testRecordKeepsTheOutcomeOfEveryCall() {
+        traceRecorder.record("SpacecraftService.getSpacecraftById", 0L, 1_000L, null);
+        traceRecorder.record("SpacecraftService.deleteSpacecraft", 0L, 2_000L, new EntityNotFoundException("Not found"));
+
+        List<TraceRecord> records = traceRecorder.recent();
+        assertEquals(TraceRecord.OK, records.get(0).outcome());
+        assertEquals("EntityNotFoundException", records.get(1).outcome());
+    }
+
+    @Test
+    void testClientErrorsAreNotUnexpected() {
+        assertFalse(TraceRecorder.unexpected(new EntityNotFoundException("Not found")));
+        assertFalse(TraceRecorder.unexpected(new NegativeIdException("Negative")));
+        assertFalse(TraceRecorder.unexpected(new IllegalArgumentException("Bad If-Match")));
+        assertFalse(TraceRecorder.unexpected(new OptimisticLockingFailureException("Modified")));
+        assertTrue(TraceRecorder.unexpected(new DataAccessResourceFailureException("Connection refused")));
+        assertTrue(TraceRecorder.unexpected(new IllegalStateException("Broken")));
+    }
+}
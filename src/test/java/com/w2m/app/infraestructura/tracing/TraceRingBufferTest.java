@@ -0,0 +1,54 @@
+package com.w2m.app.infraestructura.tracing;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceRingBufferTest {
+
+    @Test
+    void testCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(8, new TraceRingBuffer(5).capacity());
+        assertEquals(8, new TraceRingBuffer(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TraceRingBuffer(0));
+    }
+
+    @Test
+    void testSnapshotKeepsMostRecentRecordsInOrder() {
+        TraceRingBuffer buffer = new TraceRingBuffer(4);
+        for (int i = 0; i < 6; i++) {
+            buffer.record("op" + i, 0L, i, TraceRecord.OK);
+        }
+
+        List<TraceRecord> records = buffer.snapshot();
+
+        assertEquals(List.of("op2", "op3", "op4", "op5"), records.stream().map(TraceRecord::operation).toList());
+        assertEquals(2L, records.get(0).sequence());
+    }
+
+    @Test
+    void testConcurrentWriters() throws Exception {
+        TraceRingBuffer buffer = new TraceRingBuffer(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    buffer.record("op", 0L, i, TraceRecord.OK);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<TraceRecord> records = buffer.snapshot();
+
+        assertEquals(1024, records.size());
+        assertEquals(39_999L, records.get(records.size() - 1).sequence());
+    }
+}
@@ -0,0 +1,46 @@
+package com.w2m.app.infraestructura.tracing;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TracingEndpointTest {
+
+    private final TraceRecorder traceRecorder = new TraceRecorder(true, 100, 16);
+    private final TracingEndpoint tracingEndpoint = new TracingEndpoint(traceRecorder);
+
+    @Test
+    void testTracingReturnsRecentRecords() {
+        traceRecorder.record("SpacecraftService.getSpacecraftById", 0L, 1_000L, null);
+        traceRecorder.record("SpacecraftService.deleteSpacecraft", 0L, 2_000L, new EntityNotFoundException("Not found"));
+
+        Map<String, Object> status = tracingEndpoint.tracing();
+
+        assertEquals(true, status.get("enabled"));
+        assertEquals(100, status.get("sampleRate"));
+        assertEquals(16, status.get("bufferSize"));
+        assertEquals(2, ((List<?>) status.get("records")).size());
+    }
+
+    @Test
+    void testConfigure() {
+        tracingEndpoint.configure(false, 10);
+
+        assertEquals(false, traceRecorder.isEnabled());
+        assertEquals(10, traceRecorder.getSampleRate());
+
+        tracingEndpoint.configure(null, null);
+
+        assertEquals(false, traceRecorder.isEnabled());
+        assertEquals(10, traceRecorder.getSampleRate());
+    }
+
+    @Test
+    void testConfigureInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class, () -> tracingEndpoint.configure(null, 0));
+    }
+}
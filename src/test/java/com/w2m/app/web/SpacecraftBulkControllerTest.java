@@ -0,0 +1,68 @@
+package com.w2m.app.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.w2m.app.application.dto.BulkItemResult;
+import com.w2m.app.application.dto.BulkItemResult.Status;
+import com.w2m.app.application.service.SpacecraftBulkService;
+import com.w2m.app.domino.model.Spacecraft;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpacecraftBulkControllerTest {
+
+    @Mock
+    private SpacecraftBulkService bulkService;
+
+    private SpacecraftBulkController bulkController;
+
+    @BeforeEach
+    void setUp() {
+        bulkController = new SpacecraftBulkController(bulkService, new ObjectMapper());
+    }
+
+    @Test
+    void testUpsertSpacecrafts() {
+        List<BulkItemResult> results = List.of(BulkItemResult.success(0, 1000L, Status.CREATED));
+        when(bulkService.upsertAll(any())).thenReturn(results);
+
+        ResponseEntity<List<BulkItemResult>> response = bulkController.upsertSpacecrafts(
+                List.of(new Spacecraft(null, "A-Wing", "Interceptor", "Rebel Alliance")));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void testUpsertSpacecraftsNdjson() throws Exception {
+        List<String> names = new ArrayList<>();
+        when(bulkService.upsertAll(any())).thenAnswer(invocation -> {
+            Iterator<Spacecraft> spacecrafts = invocation.getArgument(0);
+            spacecrafts.forEachRemaining(spacecraft -> names.add(spacecraft.getName()));
+            return List.of();
+        });
+        String body = """
+                {"name":"A-Wing","type":"Interceptor","origin":"Rebel Alliance"}
+                {"id":1,"name":"X-Wing","type":"Fighter","origin":"Rebel Alliance"}
+                """;
+
+        ResponseEntity<List<BulkItemResult>> response = bulkController.upsertSpacecraftsNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of("A-Wing", "X-Wing"), names);
+    }
+}
@@ -0,0 +1,144 @@
+package com.w2m.app.web;
+
+import com.w2m.app.application.changes.SpacecraftChangeLog;
+import com.w2m.app.application.changes.SpacecraftChangeStore;
+import com.w2m.app.application.dto.SpacecraftChange.Type;
+import com.w2m.app.application.exception.GlobalExceptionHandler;
+import com.w2m.app.domino.model.Spacecraft;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SpacecraftChangeControllerTest {
+
+    private SpacecraftChangeLog changeLog;
+    private SpacecraftChangeController changeController;
+    private MockMvc mockMvc;
+    private long start;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<SpacecraftChangeStore> store = mock(ObjectProvider.class);
+        when(store.getIfAvailable()).thenReturn(null);
+        changeLog = new SpacecraftChangeLog(store, 16);
+        start = changeLog.lastSequence();
+        changeController = new SpacecraftChangeController(changeLog, Duration.ofSeconds(30), Duration.ofMinutes(1), 1);
+        mockMvc = MockMvcBuilders.standaloneSetup(changeController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeController.shutdown();
+    }
+
+    @Test
+    void testGetChangesWithoutSequenceReturnsTheCurrentOne() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/spacecraft/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(0))
+                .andExpect(jsonPath("$.lastSequence").value(start));
+    }
+
+    @Test
+    void testGetChangesReturnsTheRecordedOnes() throws Exception {
+        changeLog.record(Type.CREATED, 1L, new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 0L));
+        changeLog.record(Type.DELETED, 1L, null);
+
+        MvcResult result = mockMvc.perform(get("/api/spacecraft/changes").param("after", Long.toString(start)))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.changes[0].spacecraft.name").value("X-Wing"))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.lastSequence").value(start + 2));
+    }
+
+    @Test
+    void testLongPollCompletesWhenAChangeIsRecorded() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/spacecraft/changes")
+                        .param("after", Long.toString(start))
+                        .param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        changeLog.record(Type.DELETED, 5L, null);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].spacecraftId").value(5))
+                .andExpect(jsonPath("$.lastSequence").value(start + 1));
+    }
+
+    @Test
+    void testGetChangesRejectsInvalidArguments() throws Exception {
+        mockMvc.perform(get("/api/spacecraft/changes").param("after", "0").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spacecraft/changes").param("after", "0").param("wait", "31"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetChangesFromAnExpiredSequenceIsGone() throws Exception {
+        mockMvc.perform(get("/api/spacecraft/changes").param("after", "1"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void testStreamChangesSendsTheBacklogAndNewChanges() throws Exception {
+        changeLog.record(Type.DELETED, 1L, null);
+
+        MvcResult result = mockMvc.perform(get("/api/spacecraft/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", Long.toString(start)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        changeLog.record(Type.DELETED, 2L, null);
+
+        assertTrue(awaitContent(result, "id:" + (start + 2)));
+        String content = result.getResponse().getContentAsString();
+        assertTrue(content.contains("id:" + (start + 1) + "\ndata:{"));
+        assertTrue(content.contains("\"spacecraftId\":2"));
+    }
+
+    @Test
+    void testStreamChangesFromAnExpiredSequenceIsGone() throws Exception {
+        mockMvc.perform(get("/api/spacecraft/changes").accept(MediaType.TEXT_EVENT_STREAM).param("after", "1"))
+                .andExpect(status().isGone());
+    }
+
+    private static boolean awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (result.getResponse().getContentAsString().contains(expected)) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
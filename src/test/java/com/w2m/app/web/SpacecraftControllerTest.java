@@ -1,9 +1,13 @@
 package com.w2m.app.web;
 
+import com.w2m.app.application.dto.CursorPage;
+import com.w2m.app.application.dto.SpacecraftFacetCounts;
+import com.w2m.app.application.exception.GlobalExceptionHandler;
 import com.w2m.app.application.service.SpacecraftService;
 import com.w2m.app.domino.model.Spacecraft;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +15,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -22,7 +32,17 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class SpacecraftControllerTest {
@@ -59,11 +79,129 @@ class SpacecraftControllerTest {
         assertEquals(1, response.getBody().getContent().size());
     }
 
+    @Test
+    void testResponsesAreNegotiatedByAccept() throws Exception {
+        when(spacecraftService.getSpacecraftById(1L)).thenReturn(Optional.of(spacecraft));
+        when(spacecraftService.searchSpacecraftByName("Wing")).thenReturn(List.of(spacecraft));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(),
+                        new SpacecraftProtobufHttpMessageConverter())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(get("/api/spacecraft/1"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/api/spacecraft/1").accept(SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        mockMvc.perform(get("/api/spacecraft/find").param("name", "Wing")
+                        .accept(SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void testGetAllSpacecraftsByCursor() {
+        CursorPage<Spacecraft> page = new CursorPage<>(List.of(spacecraft), CursorPage.encode(1L));
+
+        when(spacecraftService.getSpacecraftPage("", 1)).thenReturn(page);
+
+        ResponseEntity<CursorPage<Spacecraft>> response = spacecraftController.getAllSpacecraftsByCursor("", 1);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().content().size());
+        assertNotNull(response.getBody().nextCursor());
+    }
+
+    @Test
+    void testFilterSpacecraft() {
+        Page<Spacecraft> page = new PageImpl<>(List.of(spacecraft));
+        when(spacecraftService.filterSpacecraft("Fighter", "Rebel Alliance", null, pageable)).thenReturn(page);
+
+        ResponseEntity<Page<Spacecraft>> response =
+                spacecraftController.filterSpacecraft("Fighter", "Rebel Alliance", null, pageable);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void testGetSpacecraftFacets() throws Exception {
+        when(spacecraftService.getSpacecraftFacets(null, "Rebel Alliance")).thenReturn(
+                new SpacecraftFacetCounts(2, Map.of("Fighter", 2L), Map.of("Rebel Alliance", 2L, "Earth", 1L)));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController).build();
+
+        mockMvc.perform(get("/api/spacecraft/facets").param("origin", "Rebel Alliance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.types.Fighter").value(2))
+                .andExpect(jsonPath("$.origins.Earth").value(1));
+    }
+
+    @Test
+    void testGetSpacecraftsByIds() {
+        when(spacecraftService.getSpacecraftsByIds(List.of(1L, 2L))).thenReturn(List.of(spacecraft));
+
+        ResponseEntity<List<Spacecraft>> response = spacecraftController.getSpacecraftsByIds(List.of(1L, 2L));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of(spacecraft), response.getBody());
+    }
+
+    @Test
+    void testGetSpacecraftByIdReturnsETag() {
+        Spacecraft versioned = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 3L);
+        when(spacecraftService.getSpacecraftById(1L)).thenReturn(Optional.of(versioned));
+
+        ResponseEntity<Spacecraft> response = spacecraftController.getSpacecraftById(1L, null);
+
+        assertEquals("\"1-3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testConditionalGetReturnsNotModified() throws Exception {
+        Spacecraft versioned = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 3L);
+        when(spacecraftService.getSpacecraftById(1L)).thenReturn(Optional.of(versioned));
+        when(spacecraftService.searchSpacecraftByName("Wing")).thenReturn(List.of(versioned));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(),
+                        new SpacecraftProtobufHttpMessageConverter())
+                .build();
+
+        mockMvc.perform(get("/api/spacecraft/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/spacecraft/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-2\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/spacecraft/1").accept(SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3+protobuf\""));
+        mockMvc.perform(get("/api/spacecraft/1").accept(SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3+protobuf\""))
+                .andExpect(status().isNotModified());
+        String listTag = mockMvc.perform(get("/api/spacecraft/find").param("name", "Wing"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/spacecraft/find").param("name", "Wing").header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testSearchSpacecraftByNamePrefix() throws Exception {
+        when(spacecraftService.searchSpacecraftByNamePrefix("x-", 10)).thenReturn(List.of(spacecraft));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController).build();
+
+        mockMvc.perform(get("/api/spacecraft/find").param("prefix", "x-"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("X-Wing"));
+    }
+
     @Test
     void testGetSpacecraftById_Success() {
         when(spacecraftService.getSpacecraftById(1L)).thenReturn(Optional.of(spacecraft));
 
-        ResponseEntity<Spacecraft> response = spacecraftController.getSpacecraftById(1L);
+        ResponseEntity<Spacecraft> response = spacecraftController.getSpacecraftById(1L, null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
@@ -74,7 +212,7 @@ class SpacecraftControllerTest {
     void testGetSpacecraftById_NotFound() {
         when(spacecraftService.getSpacecraftById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(EntityNotFoundException.class, () -> spacecraftController.getSpacecraftById(1L));
+        assertThrows(EntityNotFoundException.class, () -> spacecraftController.getSpacecraftById(1L, null));
     }
 
     @Test
@@ -83,7 +221,7 @@ class SpacecraftControllerTest {
 
         when(spacecraftService.searchSpacecraftByName("X-Wing")).thenReturn(spacecraftList);
 
-        ResponseEntity<List<Spacecraft>> response = spacecraftController.searchSpacecraftByName("X-Wing");
+        ResponseEntity<List<Spacecraft>> response = spacecraftController.searchSpacecraftByName("X-Wing", null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
@@ -103,15 +241,60 @@ class SpacecraftControllerTest {
 
     @Test
     void testUpdateSpacecraft() {
-        when(spacecraftService.updateSpacecraft(eq(1L), any(Spacecraft.class))).thenReturn(spacecraft);
+        when(spacecraftService.updateSpacecraft(eq(1L), any(Spacecraft.class), isNull())).thenReturn(spacecraft);
 
-        ResponseEntity<Spacecraft> response = spacecraftController.updateSpacecraft(1L, spacecraft);
+        ResponseEntity<Spacecraft> response = spacecraftController.updateSpacecraft(1L, null, null, spacecraft);
 
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertEquals("X-Wing", response.getBody().getName());
     }
 
+    @Test
+    void testConditionalUpdatesSendTheExpectedVersion() throws Exception {
+        Spacecraft updated = new Spacecraft(1L, "X-Wing Mk2", "Fighter", "Rebel Alliance", 4L);
+        when(spacecraftService.updateSpacecraft(eq(1L), any(Spacecraft.class), eq(3L))).thenReturn(updated);
+        when(spacecraftService.patchSpacecraft(eq(1L), any(Spacecraft.class), eq(3L))).thenReturn(updated);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController).build();
+
+        mockMvc.perform(put("/api/spacecraft/1").header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"X-Wing Mk2\",\"type\":\"Fighter\",\"origin\":\"Rebel Alliance\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+        mockMvc.perform(patch("/api/spacecraft/1").header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"X-Wing Mk2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                .andExpect(jsonPath("$.name").value("X-Wing Mk2"));
+    }
+
+    @Test
+    void testPatchRequiresIfMatch() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController).build();
+
+        mockMvc.perform(patch("/api/spacecraft/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"X-Wing Mk2\"}"))
+                .andExpect(status().isPreconditionRequired());
+        verifyNoInteractions(spacecraftService);
+    }
+
+    @Test
+    void testVersionConflictIsReportedAsConflict() throws Exception {
+        when(spacecraftService.patchSpacecraft(eq(1L), any(Spacecraft.class), eq(3L)))
+                .thenThrow(new OptimisticLockingFailureException("Spacecraft 1 has been modified"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(patch("/api/spacecraft/1").header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"X-Wing Mk2\"}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void testDeleteSpacecraft() {
         doNothing().when(spacecraftService).deleteSpacecraft(1L);
@@ -120,4 +303,25 @@ class SpacecraftControllerTest {
 
         assertEquals(204, response.getStatusCodeValue());
     }
+
+    @Test
+    void testDeleteSpacecrafts() throws Exception {
+        when(spacecraftService.deleteSpacecrafts(List.of(1L, 2L))).thenReturn(List.of(1L));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController).build();
+
+        mockMvc.perform(delete("/api/spacecraft").param("ids", "1,2"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void testDeleteSpacecraftsNoneFound() throws Exception {
+        when(spacecraftService.deleteSpacecrafts(List.of(98L, 99L)))
+                .thenThrow(new EntityNotFoundException("Spacecraft not found with ids: [98, 99]"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(spacecraftController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(delete("/api/spacecraft").param("ids", "98,99"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,79 @@
+package com.w2m.app.web;
+
+import com.w2m.app.domino.model.Spacecraft;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpacecraftETagsTest {
+
+    private static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+    private final Spacecraft xWing = new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 0L);
+    private final Spacecraft yWing = new Spacecraft(2L, "Y-Wing", "Bomber", "Rebel Alliance", 4L);
+    private final List<MediaType> producible = List.of(MediaType.APPLICATION_JSON,
+            new MediaType("application", "x-jackson-smile"), MediaType.APPLICATION_CBOR,
+            SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+
+    @Test
+    void testSpacecraftTagChangesWithVersion() {
+        assertEquals("\"1-0\"", SpacecraftETags.of(xWing, JSON));
+        assertEquals("\"1-1\"", SpacecraftETags.of(new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 1L), JSON));
+        assertNull(SpacecraftETags.of(new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance"), JSON));
+    }
+
+    @Test
+    void testListTagDependsOnVersionsAndOrder() {
+        String tag = SpacecraftETags.of(List.of(xWing, yWing), JSON);
+
+        assertEquals(tag, SpacecraftETags.of(List.of(xWing, new Spacecraft(2L, "Y-Wing", "Bomber", "Rebel Alliance", 4L)), JSON));
+        assertNotEquals(tag, SpacecraftETags.of(List.of(yWing, xWing), JSON));
+        assertNotEquals(tag, SpacecraftETags.of(List.of(xWing, new Spacecraft(2L, "Y-Wing", "Bomber", "Rebel Alliance", 5L)), JSON));
+        assertNotEquals(tag, SpacecraftETags.of(List.of(xWing), JSON));
+        assertNull(SpacecraftETags.of(List.of(xWing, new Spacecraft(3L, "A-Wing", "Fighter", "Rebel Alliance")), JSON));
+    }
+
+    @Test
+    void testBinaryRepresentationsHaveTheirOwnTags() {
+        assertEquals("\"1-0+cbor\"", SpacecraftETags.of(xWing, MediaType.APPLICATION_CBOR));
+        assertEquals("\"1-0+smile\"", SpacecraftETags.of(xWing, new MediaType("application", "x-jackson-smile")));
+        assertEquals("\"1-0+protobuf\"",
+                SpacecraftETags.of(xWing, SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertNotEquals(SpacecraftETags.of(List.of(xWing), JSON),
+                SpacecraftETags.of(List.of(xWing), MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void testRepresentationFollowsAccept() {
+        assertEquals(MediaType.APPLICATION_JSON, SpacecraftETags.representation(null, producible));
+        assertEquals(MediaType.APPLICATION_JSON, SpacecraftETags.representation("*/*", producible));
+        assertEquals(MediaType.APPLICATION_CBOR, SpacecraftETags.representation("application/cbor", producible));
+        assertEquals(MediaType.APPLICATION_CBOR,
+                SpacecraftETags.representation("application/json;q=0.5, application/cbor", producible));
+        assertEquals(SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF,
+                SpacecraftETags.representation("application/x-protobuf, */*;q=0.1", producible));
+        assertEquals(MediaType.APPLICATION_JSON, SpacecraftETags.representation("not a media type", producible));
+    }
+
+    @Test
+    void testIfMatchIsTurnedIntoTheExpectedVersion() {
+        assertEquals(4L, SpacecraftETags.version(2L, SpacecraftETags.of(yWing, JSON)));
+        assertEquals(4L, SpacecraftETags.version(2L, " \"2-4\" "));
+        assertEquals(4L, SpacecraftETags.version(2L, "\"2-4+cbor\""));
+        assertNull(SpacecraftETags.version(2L, null));
+        assertNull(SpacecraftETags.version(2L, "*"));
+    }
+
+    @Test
+    void testIfMatchMustBeASingleStrongTagOfTheSpacecraft() {
+        assertThrows(IllegalArgumentException.class, () -> SpacecraftETags.version(2L, "\"1-4\""));
+        assertThrows(IllegalArgumentException.class, () -> SpacecraftETags.version(2L, "W/\"2-4\""));
+        assertThrows(IllegalArgumentException.class, () -> SpacecraftETags.version(2L, "\"2-4\", \"2-5\""));
+        assertThrows(IllegalArgumentException.class, () -> SpacecraftETags.version(2L, "2-4"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.w2m.app.web;
+
+import com.w2m.app.application.exception.GlobalExceptionHandler;
+import com.w2m.app.application.service.SpacecraftExportService;
+import com.w2m.app.application.service.SpacecraftService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class SpacecraftExportControllerTest {
+
+    @Mock
+    private SpacecraftExportService exportService;
+
+    @Mock
+    private SpacecraftService spacecraftService;
+
+    @InjectMocks
+    private SpacecraftExportController exportController;
+
+    @Test
+    void testExportSpacecraft() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        exportController.exportSpacecraft(response);
+
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        verify(exportService).exportAll(response.getOutputStream());
+    }
+
+    @Test
+    void testExportIsNotTakenForASpacecraftId() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(exportController, new SpacecraftController(spacecraftService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(get("/api/spacecraft/export").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotAcceptable());
+        verifyNoInteractions(spacecraftService, exportService);
+    }
+}
@@ -0,0 +1,115 @@
+package com.w2m.app.web;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.w2m.app.domino.model.Spacecraft;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import static com.w2m.app.web.SpacecraftProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpacecraftProtobufHttpMessageConverterTest {
+
+    private final SpacecraftProtobufHttpMessageConverter converter = new SpacecraftProtobufHttpMessageConverter();
+
+    @Test
+    void testWritesOnlySpacecraftAndPagesOfSpacecraft() {
+        assertTrue(converter.canWrite(Spacecraft.class, Spacecraft.class, APPLICATION_PROTOBUF));
+        assertTrue(converter.canWrite(ResolvableType.forClassWithGenerics(Page.class, Spacecraft.class).getType(),
+                PageImpl.class, APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(ResolvableType.forClassWithGenerics(Page.class, String.class).getType(),
+                PageImpl.class, APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, Spacecraft.class).getType(),
+                List.class, APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(Spacecraft.class, Spacecraft.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canRead(Spacecraft.class, null, APPLICATION_PROTOBUF));
+        assertFalse(converter.canRead(Page.class, null, APPLICATION_PROTOBUF));
+    }
+
+    @Test
+    void testWritesSpacecraftFieldsAndLeavesNullsOut() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(new Spacecraft(1L, "X-Wing", "Fighter", null, 3L), Spacecraft.class, APPLICATION_PROTOBUF, output);
+
+        CodedInputStream input = CodedInputStream.newInstance(output.getBodyAsBytes());
+        assertEquals(1 << 3, input.readTag());
+        assertEquals(1L, input.readInt64());
+        assertEquals(2 << 3 | 2, input.readTag());
+        assertEquals("X-Wing", input.readString());
+        assertEquals(3 << 3 | 2, input.readTag());
+        assertEquals("Fighter", input.readString());
+        assertEquals(5 << 3, input.readTag());
+        assertEquals(3L, input.readInt64());
+        assertEquals(0, input.readTag());
+        assertEquals(APPLICATION_PROTOBUF, output.getHeaders().getContentType());
+    }
+
+    @Test
+    void testWritesPageContentAsNestedMessages() throws Exception {
+        Page<Spacecraft> page = new PageImpl<>(List.of(new Spacecraft(1L, "X-Wing", "Fighter", "Rebel Alliance", 0L),
+                new Spacecraft(2L, "Y-Wing", "Bomber", "Rebel Alliance", 0L)), PageRequest.of(1, 2), 5);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(page, ResolvableType.forClassWithGenerics(Page.class, Spacecraft.class).getType(),
+                APPLICATION_PROTOBUF, output);
+
+        CodedInputStream input = CodedInputStream.newInstance(output.getBodyAsBytes());
+        for (String name : List.of("X-Wing", "Y-Wing")) {
+            assertEquals(1 << 3 | 2, input.readTag());
+            Spacecraft spacecraft = (Spacecraft) converter.read(Spacecraft.class, null,
+                    new MockHttpInputMessage(input.readBytes().toByteArray()));
+            assertEquals(name, spacecraft.getName());
+            assertEquals("Rebel Alliance", spacecraft.getOrigin());
+        }
+        assertEquals(2 << 3, input.readTag());
+        assertEquals(1, input.readInt32());
+        assertEquals(3 << 3, input.readTag());
+        assertEquals(2, input.readInt32());
+        assertEquals(4 << 3, input.readTag());
+        assertEquals(5L, input.readInt64());
+        assertEquals(5 << 3, input.readTag());
+        assertEquals(3, input.readInt32());
+        assertEquals(0, input.readTag());
+    }
+
+    @Test
+    void testReadsSpacecraftSkippingUnknownFields() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream message = CodedOutputStream.newInstance(bytes);
+        message.writeString(2, "Millennium Falcon");
+        message.writeString(9, "unknown");
+        message.writeString(4, "Corellia");
+        message.flush();
+
+        Spacecraft spacecraft = (Spacecraft) converter.read(Spacecraft.class, null,
+                new MockHttpInputMessage(bytes.toByteArray()));
+
+        assertNull(spacecraft.getId());
+        assertEquals("Millennium Falcon", spacecraft.getName());
+        assertNull(spacecraft.getType());
+        assertEquals("Corellia", spacecraft.getOrigin());
+        assertNull(spacecraft.getVersion());
+    }
+
+    @Test
+    void testRejectsMalformedMessages() {
+        MockHttpInputMessage truncated = new MockHttpInputMessage(new byte[] {2 << 3 | 2, 10, 'X'});
+
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(Spacecraft.class, null, truncated));
+    }
+}